@@ -0,0 +1,79 @@
+package org.springframework.samples.petclinic.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.samples.petclinic.security.AuthTokenProperties;
+import org.springframework.samples.petclinic.security.AuthTokenService;
+import org.springframework.samples.petclinic.security.AuthenticationCacheProperties;
+import org.springframework.samples.petclinic.security.CachingAuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request CPU cost of the authentication modes, without the database: BCrypt on every request
+ * (plain HTTP Basic), HTTP Basic with the credential cache, and signed token verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String SECRET = "cGV0Y2xpbmljLWJlbmNobWFyay1zaWduaW5nLWtleSE=";
+
+    DaoAuthenticationProvider basic;
+    CachingAuthenticationProvider cachedBasic;
+    AuthTokenService tokenService;
+    String token;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(User.withUsername("admin")
+            .password(passwordEncoder.encode("admin"))
+            .roles("OWNER_ADMIN", "VET_ADMIN", "ADMIN")
+            .build());
+        basic = new DaoAuthenticationProvider(users);
+        basic.setPasswordEncoder(passwordEncoder);
+        cachedBasic = new CachingAuthenticationProvider(basic, new AuthenticationCacheProperties(Duration.ofMinutes(5), 100));
+        tokenService = new AuthTokenService(new AuthTokenProperties(SECRET, Duration.ofMinutes(15)), Clock.systemUTC());
+        token = tokenService.issue(basic.authenticate(login())).token();
+    }
+
+    @Benchmark
+    public Authentication basic() {
+        return basic.authenticate(login());
+    }
+
+    @Benchmark
+    public Authentication cachedBasic() {
+        return cachedBasic.authenticate(login());
+    }
+
+    @Benchmark
+    public Authentication token() {
+        return tokenService.verify(token);
+    }
+
+    private static UsernamePasswordAuthenticationToken login() {
+        return UsernamePasswordAuthenticationToken.unauthenticated("admin", "admin");
+    }
+}
@@ -0,0 +1,47 @@
+package org.springframework.samples.petclinic.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.util.EntityUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of the last entity of a collection by id, the worst case of the linear scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityUtilsBenchmark {
+
+    @Param({"10", "100"})
+    int size;
+
+    List<Pet> pets;
+    int lastId;
+
+    @Setup
+    public void setUp() {
+        pets = SampleGraphs.owners(1, size, 0).get(0).getPets();
+        lastId = pets.get(pets.size() - 1).getId();
+    }
+
+    @Benchmark
+    public Pet getById() {
+        return EntityUtils.getById(pets, Pet.class, lastId);
+    }
+}
@@ -0,0 +1,98 @@
+package org.springframework.samples.petclinic.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.samples.petclinic.mapper.OwnerMapper;
+import org.springframework.samples.petclinic.mapper.PetMapper;
+import org.springframework.samples.petclinic.mapper.VisitMapper;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.rest.dto.OwnerDto;
+import org.springframework.samples.petclinic.rest.dto.PetDto;
+import org.springframework.samples.petclinic.rest.dto.VisitDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions of whole owner graphs, as done by the list endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"100", "1000"})
+    int owners;
+
+    @Param({"3"})
+    int petsPerOwner;
+
+    @Param({"10"})
+    int visitsPerPet;
+
+    AnnotationConfigApplicationContext context;
+    OwnerMapper ownerMapper;
+    PetMapper petMapper;
+    VisitMapper visitMapper;
+
+    List<Owner> ownerGraph;
+    List<Pet> pets;
+    List<Visit> visits;
+    List<PetDto> petDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // the generated mappers are Spring components wired to each other
+        context = new AnnotationConfigApplicationContext("org.springframework.samples.petclinic.mapper");
+        ownerMapper = context.getBean(OwnerMapper.class);
+        petMapper = context.getBean(PetMapper.class);
+        visitMapper = context.getBean(VisitMapper.class);
+
+        ownerGraph = SampleGraphs.owners(owners, petsPerOwner, visitsPerPet);
+        pets = ownerGraph.stream().flatMap(owner -> owner.getPets().stream()).toList();
+        visits = pets.stream().flatMap(pet -> pet.getVisits().stream()).toList();
+        petDtos = petMapper.toPetsDto(pets);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OwnerDto> ownersToDtos() {
+        return ownerMapper.toOwnerDtoCollection(ownerGraph);
+    }
+
+    @Benchmark
+    public List<PetDto> petsToDtos() {
+        return petMapper.toPetsDto(pets);
+    }
+
+    @Benchmark
+    public List<Pet> dtosToPets() {
+        return petMapper.toPets(petDtos);
+    }
+
+    @Benchmark
+    public List<VisitDto> visitsToDtos() {
+        return visitMapper.toVisitsDto(visits);
+    }
+}
@@ -0,0 +1,53 @@
+package org.springframework.samples.petclinic.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The sorted views that every owner and pet mapping goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelSortingBenchmark {
+
+    @Param({"3", "30"})
+    int size;
+
+    Owner owner;
+    Pet pet;
+
+    @Setup
+    public void setUp() {
+        owner = SampleGraphs.owners(1, size, 0).get(0);
+        pet = SampleGraphs.pet(size);
+    }
+
+    @Benchmark
+    public List<Pet> ownerGetPets() {
+        return owner.getPets();
+    }
+
+    @Benchmark
+    public List<Visit> petGetVisitsSortedByDate() {
+        return pet.getVisitsSortedByDate();
+    }
+}
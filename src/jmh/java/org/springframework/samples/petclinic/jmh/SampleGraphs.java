@@ -0,0 +1,65 @@
+package org.springframework.samples.petclinic.jmh;
+
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.model.Visit;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic owner → pet → visit graphs, shaped like the seeded data but larger.
+ */
+final class SampleGraphs {
+
+    private static final String[] NAMES = {"Leo", "Basil", "Rosy", "Jewel", "Iggy", "George", "Samantha", "Max",
+        "Lucky", "Mulligan", "Freddy", "Sly", "Bella", "Charlie", "Daisy", "Milo"};
+    private static final String[] TYPES = {"cat", "dog", "lizard", "snake", "bird", "hamster"};
+    private static final LocalDate FIRST_VISIT = LocalDate.of(2010, 1, 1);
+
+    private SampleGraphs() {
+    }
+
+    static List<Owner> owners(int owners, int petsPerOwner, int visitsPerPet) {
+        Random random = new Random(42);
+        List<PetType> types = new ArrayList<>();
+        for (int i = 0; i < TYPES.length; i++) {
+            types.add(new PetType().setId(i + 1).setName(TYPES[i]));
+        }
+        List<Owner> result = new ArrayList<>(owners);
+        int petId = 1;
+        int visitId = 1;
+        for (int o = 1; o <= owners; o++) {
+            Owner owner = new Owner()
+                .setId(o)
+                .setFirstName("First" + o)
+                .setLastName("Last" + random.nextInt(owners))
+                .setAddress(o + " Main St.")
+                .setCity("Madison")
+                .setTelephone("608555" + String.format("%04d", o % 10_000));
+            for (int p = 0; p < petsPerOwner; p++) {
+                Pet pet = new Pet()
+                    .setId(petId++)
+                    .setName(NAMES[random.nextInt(NAMES.length)] + p)
+                    .setBirthDate(FIRST_VISIT.minusDays(random.nextInt(3650)))
+                    .setType(types.get(random.nextInt(types.size())));
+                for (int v = 0; v < visitsPerPet; v++) {
+                    pet.addVisit(new Visit()
+                        .setId(visitId++)
+                        .setDate(FIRST_VISIT.plusDays(random.nextInt(5000)))
+                        .setDescription("visit " + v));
+                }
+                owner.addPet(pet);
+            }
+            result.add(owner);
+        }
+        return result;
+    }
+
+    static Pet pet(int visits) {
+        return owners(1, 1, visits).get(0).getPets().get(0);
+    }
+}
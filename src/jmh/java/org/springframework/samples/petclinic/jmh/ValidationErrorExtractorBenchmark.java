@@ -0,0 +1,70 @@
+package org.springframework.samples.petclinic.jmh;
+
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.samples.petclinic.rest.dto.OwnerFieldsDto;
+import org.springframework.samples.petclinic.rest.error.ValidationErrorExtractor;
+import org.springframework.samples.petclinic.rest.error.ValidationErrorFieldExtractor;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of validation errors for an owner with every field invalid, as rendered in 400 responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationErrorExtractorBenchmark {
+
+    ValidatorFactory validatorFactory;
+    ConstraintViolationException constraintViolations;
+    BindingResult bindingResult;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        OwnerFieldsDto invalidOwner = new OwnerFieldsDto()
+            .setFirstName("")
+            .setLastName("")
+            .setAddress("")
+            .setCity("")
+            .setTelephone("not a phone number");
+        constraintViolations = new ConstraintViolationException(validatorFactory.getValidator().validate(invalidOwner));
+        bindingResult = new BeanPropertyBindingResult(invalidOwner, "owner");
+        new SpringValidatorAdapter(validatorFactory.getValidator()).validate(invalidOwner, bindingResult);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public List<String> constraintViolations() {
+        return ValidationErrorExtractor.extract(constraintViolations);
+    }
+
+    @Benchmark
+    public List<String> fieldErrors() {
+        return ValidationErrorFieldExtractor.extract(bindingResult);
+    }
+}
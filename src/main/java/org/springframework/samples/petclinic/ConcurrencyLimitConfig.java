@@ -0,0 +1,55 @@
+package org.springframework.samples.petclinic;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Guards the connection pool with a {@link ConcurrencyLimitFilter} sized from the pool, with a short queue and a
+ * fast 503 instead of requests failing after the pool's connection timeout.
+ * <p>
+ * On platform threads, Tomcat's worker pool bounds the requests, but not the streamed responses: the CSV export is
+ * written by Spring MVC's async executor, which queues it without limit while each running one holds a connection
+ * until its last row, and the NDJSON streams hold an R2DBC connection (see {@link ReactiveReadConfig}) without
+ * holding a thread. With {@code spring.threads.virtual.enabled=true} on a Java 21+ runtime, Spring Boot runs request
+ * handling on virtual threads and Tomcat no longer bounds the requests either.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                          DataSource dataSource,
+                                                                          Environment environment) throws SQLException {
+        int maxConcurrentRequests = properties.maxConcurrentRequests() != null
+            ? properties.maxConcurrentRequests()
+            : 2 * poolSize(dataSource);
+        log.info("Requests run on {} threads, at most {} API requests at once",
+            Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform", maxConcurrentRequests);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+            new ConcurrencyLimitFilter(maxConcurrentRequests, properties.queueTimeout()));
+        registration.addUrlPatterns("/api/*");
+        // turn excess requests away before spending anything on authentication
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    private static int poolSize(DataSource dataSource) throws SQLException {
+        return dataSource.isWrapperFor(HikariDataSource.class)
+            ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+            : DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,98 @@
+package org.springframework.samples.petclinic;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets at most a fixed number of requests through at once; the others wait in arrival order
+ * for up to the queue timeout and are then turned away with 503 and a Retry-After header.
+ * <p>
+ * A permit is held until the response is complete, also when the request continues asynchronously
+ * (e.g. a streamed response that keeps a database connection until the last row is written).
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Semaphore permits;
+    private final long queueTimeoutNanos;
+
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration queueTimeout) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (!acquire()) {
+            log.debug("Rejecting {} {}: too many concurrent requests", request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        boolean releaseOnCompletion = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                releaseOnCompletion = true;
+            }
+        } finally {
+            if (!releaseOnCompletion) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * onComplete follows onTimeout and onError, so releasing there alone releases exactly once.
+     */
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // an async restart keeps the same permit
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.springframework.samples.petclinic;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Bounds the number of API requests processed at once, see {@link ConcurrencyLimitConfig}.
+ *
+ * @param maxConcurrentRequests requests allowed in at once; twice the connection pool size when not set
+ * @param queueTimeout          how long a request may wait for its turn before it is answered
+ *                              with 503 Service Unavailable
+ */
+@ConfigurationProperties("petclinic.concurrency-limit")
+public record ConcurrencyLimitProperties(
+    @Nullable Integer maxConcurrentRequests,
+    @DefaultValue("1s") Duration queueTimeout) {
+}
@@ -2,9 +2,11 @@ package org.springframework.samples.petclinic;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;
 
-@SpringBootApplication
+// the R2DBC connections are configured by ReactiveReadConfig, next to the JDBC DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class PetClinicApplication extends SpringBootServletInitializer {
 
 	public static void main(String[] args) {
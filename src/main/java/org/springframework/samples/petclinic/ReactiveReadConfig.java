@@ -0,0 +1,51 @@
+package org.springframework.samples.petclinic;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.samples.petclinic.repository.ReactiveReadDatabase;
+
+/**
+ * Non-blocking reads through R2DBC for the NDJSON streams of owners and vets; JPA and JDBC serve everything else.
+ * <p>
+ * The connection pool is not a {@code ConnectionFactory} bean: Spring Boot would take one for the application's
+ * database and stop configuring the JDBC {@code DataSource}, which is why its R2DBC auto-configuration is
+ * excluded in {@link PetClinicApplication} as well.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReactiveReadProperties.class)
+public class ReactiveReadConfig {
+
+    @Bean
+    ReactiveReadDatabase reactiveReadDatabase(ReactiveReadProperties properties) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.url()).mutate();
+        if (properties.username() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.username());
+        }
+        if (properties.password() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.password());
+        }
+        log.info("Streaming reads through R2DBC with at most {} connections", properties.poolSize());
+        return new ReactiveReadDatabase(new ConnectionPool(
+            ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .maxSize(properties.poolSize())
+                .build()));
+    }
+
+    /**
+     * The pool's r2dbc.pool.* meters, tagged name=reads, the counterpart of the hikaricp.* meters of the JDBC pool.
+     */
+    @Bean
+    MeterBinder reactiveReadConnectionPoolMetrics(ReactiveReadDatabase reactiveReadDatabase) {
+        return new ConnectionPoolMetrics(reactiveReadDatabase.getConnectionPool(), "reads", Tags.empty());
+    }
+}
@@ -0,0 +1,21 @@
+package org.springframework.samples.petclinic;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.lang.Nullable;
+
+/**
+ * The R2DBC connection the streamed owner and vet reads use, see {@link ReactiveReadConfig}.
+ *
+ * @param url      R2DBC URL of the same database {@code spring.datasource.url} points to
+ * @param username database user; none when not set
+ * @param password database password; none when not set
+ * @param poolSize connections kept for streamed reads, apart from the JDBC pool
+ */
+@ConfigurationProperties("petclinic.r2dbc")
+public record ReactiveReadProperties(
+    String url,
+    @Nullable String username,
+    @Nullable String password,
+    @DefaultValue("10") int poolSize) {
+}
@@ -0,0 +1,31 @@
+package org.springframework.samples.petclinic;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions to the replicas and everything else to the primary. The connection is only
+ * fetched at the first statement, once the transaction has marked it read-only or not.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final ReplicaDataSource replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaProperties properties) throws SQLException {
+        super(primary);
+        this.replicas = new ReplicaDataSource(primary, properties);
+        setReadOnlyDataSource(replicas);
+    }
+
+    @Override
+    public void close() throws IOException {
+        replicas.close();
+        if (getTargetDataSource() instanceof Closeable primary) {
+            primary.close();
+        }
+    }
+}
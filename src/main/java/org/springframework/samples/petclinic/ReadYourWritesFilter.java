@@ -0,0 +1,76 @@
+package org.springframework.samples.petclinic;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Lets clients read their own writes despite the replication lag: a request that changes data gets a
+ * {@value #COOKIE} cookie, and requests carrying it read from the primary until it runs out. The
+ * {@code Location} of a {@code POST} can so be followed at once, before the new row reaches the replicas.
+ * <p>
+ * The cookie is set before the request is handled, so that it also comes with a response whose body is
+ * already being written; a failed write only costs a few more reads on the primary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "PETCLINIC_READ_PRIMARY_UNTIL";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now + window.toMillis()));
+            cookie.setPath(request.getContextPath() + "/api");
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (!write && !readsOwnWrites(request, now)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReplicaDataSource.readFromPrimary(true);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaDataSource.readFromPrimary(false);
+        }
+    }
+
+    /**
+     * A cookie further ahead than the window was not set here and is ignored.
+     */
+    private boolean readsOwnWrites(HttpServletRequest request, long now) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    return until > now && until <= now + window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,122 @@
+package org.springframework.samples.petclinic;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections to the replicas in turn. A replica that cannot be connected to is left out for the
+ * retry interval and the next one is tried; with no replica left, or while {@link #readFromPrimary} is set
+ * for the current thread, connections come from the primary.
+ */
+@Slf4j
+class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private static final ThreadLocal<Boolean> READ_FROM_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long retryIntervalNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaDataSource(DataSource primary, ReplicaProperties properties) throws SQLException {
+        this.primary = primary;
+        this.retryIntervalNanos = properties.retryInterval().toNanos();
+        HikariConfig primaryConfig = new HikariConfig();
+        if (primary.isWrapperFor(HikariDataSource.class)) {
+            primary.unwrap(HikariDataSource.class).copyStateTo(primaryConfig);
+        }
+        for (String url : properties.urls()) {
+            HikariConfig config = new HikariConfig();
+            primaryConfig.copyStateTo(config);
+            config.setJdbcUrl(url);
+            config.setPoolName((primaryConfig.getPoolName() == null ? "HikariPool" : primaryConfig.getPoolName())
+                + "-replica-" + (replicas.size() + 1));
+            config.setReadOnly(true);
+            config.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            // a replica that is down at startup is failed over like one that goes down later
+            config.setInitializationFailTimeout(-1);
+            if (properties.username() != null) {
+                config.setUsername(properties.username());
+            }
+            if (properties.password() != null) {
+                config.setPassword(properties.password());
+            }
+            replicas.add(new Replica(url, new HikariDataSource(config)));
+        }
+    }
+
+    /**
+     * Has the current thread read from the primary, until called again with {@code false}.
+     */
+    static void readFromPrimary(boolean primary) {
+        if (primary) {
+            READ_FROM_PRIMARY.set(Boolean.TRUE);
+        } else {
+            READ_FROM_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (READ_FROM_PRIMARY.get() != null) {
+            return primary.getConnection();
+        }
+        int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((first + i) % replicas.size());
+            long now = System.nanoTime();
+            if (replica.down && now - replica.downUntil < 0) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                if (replica.down) {
+                    log.info("Replica {} is back", replica.url);
+                    replica.down = false;
+                }
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica {} left out for {} s: {}", replica.url, retryIntervalNanos / 1_000_000_000,
+                    e.getMessage());
+                replica.downUntil = now + retryIntervalNanos;
+                replica.down = true;
+            }
+        }
+        log.debug("No replica available, reading from the primary");
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static final class Replica {
+
+        private final String url;
+        private final HikariDataSource dataSource;
+        private volatile boolean down;
+        private volatile long downUntil;
+
+        private Replica(String url, HikariDataSource dataSource) {
+            this.url = url;
+            this.dataSource = dataSource;
+        }
+    }
+}
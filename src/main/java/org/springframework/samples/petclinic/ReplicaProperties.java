@@ -0,0 +1,29 @@
+package org.springframework.samples.petclinic;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas of the database, see {@link ReplicaRoutingConfig}.
+ *
+ * @param urls                  JDBC URLs of the replicas, read from in turn
+ * @param username              replica user; the primary's when not set
+ * @param password              replica password; the primary's when not set
+ * @param connectionTimeout     how long to wait for a replica connection before trying the next replica
+ * @param retryInterval         how long a replica that could not be connected to is left out
+ * @param readYourWritesWindow  how long a client reads from the primary after a write, so that it sees
+ *                              its own changes despite the replication lag
+ */
+@ConfigurationProperties("petclinic.replicas")
+public record ReplicaProperties(
+    List<String> urls,
+    @Nullable String username,
+    @Nullable String password,
+    @DefaultValue("2s") Duration connectionTimeout,
+    @DefaultValue("30s") Duration retryInterval,
+    @DefaultValue("5s") Duration readYourWritesWindow) {
+}
@@ -0,0 +1,44 @@
+package org.springframework.samples.petclinic;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps what read-only transactions read out of the second-level and query caches: they may have read it from a
+ * replica that has not caught up with the last write, and the caches are shared by every client. They still read
+ * from the caches. Reads meant to fill them go to the primary, see
+ * {@link org.springframework.samples.petclinic.repository.ReadFromPrimary}.
+ */
+class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+        throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        ReadOnlyTransactionData readOnly = new ReadOnlyTransactionData(transactionData, session, session.getCacheMode());
+        session.setCacheMode(CacheMode.GET);
+        return readOnly;
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData readOnly) {
+            readOnly.session().setCacheMode(readOnly.previousCacheMode());
+            super.cleanupTransaction(readOnly.transactionData());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record ReadOnlyTransactionData(Object transactionData, Session session, CacheMode previousCacheMode) {
+    }
+}
@@ -0,0 +1,69 @@
+package org.springframework.samples.petclinic;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Reads from replicas once {@code petclinic.replicas.urls} lists some: read-only transactions, which Spring Data
+ * repository reads are, go to the replicas in turn and all other work to the primary configured by
+ * {@code spring.datasource.*}, see {@link ReadWriteRoutingDataSource}. Clients read from the primary for a
+ * moment after each of their writes, see {@link ReadYourWritesFilter}.
+ * <p>
+ * What a replica returns is never put into the shared Hibernate caches, see {@link ReplicaReadJpaDialect}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty("petclinic.replicas.urls")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    static BeanPostProcessor readWriteRoutingDataSourcePostProcessor(ObjectProvider<ReplicaProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource primary) || bean instanceof ReadWriteRoutingDataSource) {
+                    return bean;
+                }
+                ReplicaProperties replicaProperties = properties.getObject();
+                log.info("Reading from {} replica(s) of data source '{}'", replicaProperties.urls().size(), beanName);
+                try {
+                    return new ReadWriteRoutingDataSource(primary, replicaProperties);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Cannot set up the replicas of data source '" + beanName + "'", e);
+                }
+            }
+        };
+    }
+
+    @Bean
+    static BeanPostProcessor replicaReadJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setJpaDialect(new ReplicaReadJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+            new ReadYourWritesFilter(properties.readYourWritesWindow()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
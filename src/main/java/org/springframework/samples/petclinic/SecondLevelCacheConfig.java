@@ -0,0 +1,68 @@
+package org.springframework.samples.petclinic;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.model.Specialty;
+import org.springframework.samples.petclinic.model.Vet;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * In-process (Caffeine/JCache) Hibernate second-level cache for reference data.
+ * <p>
+ * Every region is created up front with the configured TTL and size; Hibernate is told to fail on any region
+ * that is not declared here, so a newly cached entity cannot silently end up in an unbounded cache.
+ * Entries are updated or evicted by Hibernate itself whenever the data is written through JPA.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    static final List<String> BOUNDED_REGIONS = List.of(
+        PetType.class.getName(),
+        Specialty.class.getName(),
+        Vet.class.getName(),
+        Vet.class.getName() + ".specialties",
+        QUERY_RESULTS_REGION);
+
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        // a private URI gives every application context its own, isolated set of caches
+        URI uri = URI.create("petclinic-second-level-cache-" + System.identityHashCode(properties));
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(uri, getClass().getClassLoader());
+        for (String region : BOUNDED_REGIONS) {
+            cacheManager.createCache(region, boundedRegion(properties));
+        }
+        // must never expire before the query results it guards, hence unbounded (one entry per table)
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> boundedRegion(SecondLevelCacheProperties properties) {
+        return new CaffeineConfiguration<>()
+            .setExpireAfterWrite(OptionalLong.of(properties.timeToLive().toNanos()))
+            .setMaximumSize(OptionalLong.of(properties.maximumSize()));
+    }
+}
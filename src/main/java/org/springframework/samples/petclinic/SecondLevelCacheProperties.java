@@ -0,0 +1,19 @@
+package org.springframework.samples.petclinic;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the Hibernate second-level cache regions holding reference data (pet types, specialties, vets).
+ *
+ * @param timeToLive  how long an entry may be served before it is re-read from the database,
+ *                    as a safety net against writes that bypass Hibernate
+ * @param maximumSize maximum number of entries per region
+ */
+@ConfigurationProperties("petclinic.cache")
+public record SecondLevelCacheProperties(
+    @DefaultValue("1h") Duration timeToLive,
+    @DefaultValue("10000") long maximumSize) {
+}
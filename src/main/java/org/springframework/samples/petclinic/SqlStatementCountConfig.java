@@ -0,0 +1,31 @@
+package org.springframework.samples.petclinic;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.JdbcSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Counts the SQL statements of every API request, see {@link SqlStatementCountFilter}.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlStatementCountProperties.class)
+public class SqlStatementCountConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(JdbcSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter(MeterRegistry meterRegistry,
+                                                                            SqlStatementCountProperties properties) {
+        FilterRegistrationBean<SqlStatementCountFilter> registration = new FilterRegistrationBean<>(
+            new SqlStatementCountFilter(meterRegistry, properties.warnThreshold()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,119 @@
+package org.springframework.samples.petclinic;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the SQL statements of every request with {@link SqlStatementCounter}, so that N+1 regressions show up
+ * in production: the count is sent in the {@value #HEADER} response header, recorded per endpoint in the
+ * {@value #METER_NAME} distribution and logged, as a warning above the configured threshold.
+ * <p>
+ * The header is added when the response body is started, so it covers the statements run before that;
+ * the meter and the log line cover the whole request.
+ */
+@Slf4j
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Statement-Count";
+    static final String METER_NAME = "petclinic.http.server.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public SqlStatementCountFilter(MeterRegistry meterRegistry, int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        SqlStatementCounter.start();
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            countingResponse.addCountHeader();
+            int statements = SqlStatementCounter.stop();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METER_NAME)
+                .description("SQL statements run by a request")
+                .tags("method", request.getMethod(), "uri", uri == null ? "UNKNOWN" : uri.toString())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements", request.getMethod(), request.getRequestURI(), statements);
+            } else {
+                log.debug("{} {} ran {} SQL statements", request.getMethod(), request.getRequestURI(), statements);
+            }
+        }
+    }
+
+    /**
+     * Adds the header at the last moment it can still be sent: when the body is started or the response completed.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private boolean headerAdded;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void addCountHeader() {
+            if (!headerAdded && !isCommitted()) {
+                setIntHeader(HEADER, SqlStatementCounter.current());
+            }
+            headerAdded = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addCountHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addCountHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addCountHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addCountHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addCountHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addCountHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
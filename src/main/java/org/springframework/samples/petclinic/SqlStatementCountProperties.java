@@ -0,0 +1,11 @@
+package org.springframework.samples.petclinic;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param warnThreshold requests running more SQL statements than this are logged as warnings
+ */
+@ConfigurationProperties("petclinic.sql-statements")
+public record SqlStatementCountProperties(@DefaultValue("20") int warnThreshold) {
+}
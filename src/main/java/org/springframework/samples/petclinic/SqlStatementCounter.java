@@ -0,0 +1,41 @@
+package org.springframework.samples.petclinic;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while counting is started.
+ * <p>
+ * A JDBC batch counts once, as it is prepared once. Statements run through plain JDBC (JdbcTemplate)
+ * or on another thread, such as the rest of a streamed response, are not counted.
+ */
+public final class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * @return the statements counted so far on this thread, 0 when counting is not started
+     */
+    static int current() {
+        int[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,306 @@
+package org.springframework.samples.petclinic.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Adds a large synthetic dataset on top of the seeded one, for load tests: enabled by the {@code generate-data}
+ * profile, it runs once the schema and data.sql are loaded and before the application is ready.
+ * <p>
+ * Owners are split into chunks, loaded in parallel over one connection each with JDBC batches (which the
+ * PostgreSQL driver rewrites into multi-row inserts, see {@code reWriteBatchedInserts}) and committed per chunk.
+ * A first pass counts the pets and visits of every chunk, so that each chunk knows its id range up front and
+ * the ids stay the same for the same seed. The id sequences are moved past the new rows at the end.
+ */
+@Slf4j
+@Component
+@Profile("generate-data")
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class DataGenerator implements ApplicationRunner {
+
+    private static final String[] SEQUENCES = {"owners_seq", "pets_seq", "visits_seq"};
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataGeneratorProperties properties;
+
+    public DataGenerator(DataSource dataSource, DataGeneratorProperties properties) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = properties;
+    }
+
+    public record Summary(int owners, int pets, int visits, int vets, int specialties, Duration elapsed) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        generate();
+    }
+
+    public Summary generate() throws SQLException, InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        List<Integer> petTypeIds = jdbcTemplate.queryForList("SELECT id FROM types ORDER BY id", Integer.class);
+        if (petTypeIds.isEmpty()) {
+            throw new IllegalStateException("No pet types to generate pets with");
+        }
+        SyntheticData data = new SyntheticData(properties.seed(), properties.meanVisitsPerPet(), petTypeIds.size());
+        List<Integer> specialtyIds = insertSpecialties();
+        insertVets(data, specialtyIds);
+
+        int chunks = (properties.owners() + properties.ownersPerChunk() - 1) / properties.ownersPerChunk();
+        int[] firstIds = {maxId("owners") + 1, maxId("pets") + 1, maxId("visits") + 1};
+        ExecutorService executor = Executors.newFixedThreadPool(properties.threads());
+        try {
+            List<Callable<ChunkCounter>> counts = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int c = chunk;
+                counts.add(() -> {
+                    ChunkCounter counter = new ChunkCounter();
+                    data.owners(c, firstOwner(c), ownersInChunk(c), counter);
+                    return counter;
+                });
+            }
+            List<Callable<Void>> loads = new ArrayList<>(chunks);
+            int pets = 0;
+            int visits = 0;
+            int chunk = 0;
+            for (Future<ChunkCounter> count : executor.invokeAll(counts)) {
+                int c = chunk++;
+                int firstPetId = firstIds[1] + pets;
+                int firstVisitId = firstIds[2] + visits;
+                loads.add(() -> {
+                    loadChunk(data, c, firstIds[0] + firstOwner(c), firstPetId, firstVisitId, petTypeIds);
+                    return null;
+                });
+                pets += count.get().pets;
+                visits += count.get().visits;
+            }
+            for (Future<Void> load : executor.invokeAll(loads)) {
+                load.get();
+            }
+            restartSequences(firstIds[0] + properties.owners(), firstIds[1] + pets, firstIds[2] + visits);
+
+            Summary summary = new Summary(properties.owners(), pets, visits, properties.vets(), specialtyIds.size(),
+                Duration.ofNanos(System.nanoTime() - start));
+            log.info("Generated {} owners, {} pets, {} visits, {} vets and {} specialties in {} s", summary.owners(),
+                summary.pets(), summary.visits(), summary.vets(), summary.specialties(), summary.elapsed().toSeconds());
+            return summary;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int firstOwner(int chunk) {
+        return chunk * properties.ownersPerChunk();
+    }
+
+    private int ownersInChunk(int chunk) {
+        return Math.min(properties.ownersPerChunk(), properties.owners() - firstOwner(chunk));
+    }
+
+    private int maxId(String table) {
+        Integer max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Integer.class);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * @return the ids of the added specialties, most common first
+     */
+    private List<Integer> insertSpecialties() {
+        List<String> names = SyntheticData.specialtyNames(properties.specialties(),
+            new HashSet<>(jdbcTemplate.queryForList("SELECT name FROM specialties", String.class)));
+        jdbcTemplate.batchUpdate("INSERT INTO specialties (name) VALUES (?)", names, properties.batchSize(),
+            (ps, name) -> ps.setString(1, name));
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM specialties", rs -> {
+            ids.put(rs.getString("name"), rs.getInt("id"));
+        });
+        return names.stream().map(ids::get).toList();
+    }
+
+    private void insertVets(SyntheticData data, List<Integer> specialtyIds) {
+        List<String[]> names = new ArrayList<>(properties.vets());
+        List<int[]> specialties = new ArrayList<>(properties.vets());
+        data.vets(properties.vets(), specialtyIds.size(), (vet, firstName, lastName, vetSpecialties) -> {
+            names.add(new String[]{firstName, lastName});
+            specialties.add(vetSpecialties);
+        });
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement("INSERT INTO vets (first_name, last_name) VALUES (?, ?)", new String[]{"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setString(1, names.get(i)[0]);
+                    ps.setString(2, names.get(i)[1]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return names.size();
+                }
+            }, keys);
+        List<int[]> vetSpecialties = new ArrayList<>();
+        for (int vet = 0; vet < names.size(); vet++) {
+            int vetId = ((Number) keys.getKeyList().get(vet).get("id")).intValue();
+            for (int specialty : specialties.get(vet)) {
+                vetSpecialties.add(new int[]{vetId, specialtyIds.get(specialty)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO vet_specialties (vet_id, specialty_id) VALUES (?, ?)", vetSpecialties,
+            properties.batchSize(), (ps, row) -> {
+                ps.setInt(1, row[0]);
+                ps.setInt(2, row[1]);
+            });
+    }
+
+    private void loadChunk(SyntheticData data, int chunk, int firstOwnerId, int firstPetId, int firstVisitId,
+                           List<Integer> petTypeIds) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (BatchInsert owners = new BatchInsert(connection, null,
+                "INSERT INTO owners (id, first_name, last_name, last_name_lower, address, city, telephone) VALUES (?, ?, ?, ?, ?, ?, ?)");
+                 BatchInsert pets = new BatchInsert(connection, owners,
+                     "INSERT INTO pets (id, name, birth_date, type_id, owner_id) VALUES (?, ?, ?, ?, ?)");
+                 BatchInsert visits = new BatchInsert(connection, pets,
+                     "INSERT INTO visits (id, pet_id, visit_date, description) VALUES (?, ?, ?, ?)")) {
+                int[] nextVisitId = {firstVisitId};
+                data.owners(chunk, firstOwner(chunk), ownersInChunk(chunk), new SyntheticData.OwnerSink() {
+                    @Override
+                    public void owner(int owner, String firstName, String lastName, String address, String city,
+                                      String telephone) {
+                        owners.add(firstOwnerId + owner, firstName, lastName, lastName.toLowerCase(Locale.ROOT),
+                            address, city, telephone);
+                    }
+
+                    @Override
+                    public void pet(int pet, int owner, String name, LocalDate birthDate, int petType) {
+                        pets.add(firstPetId + pet, name, Date.valueOf(birthDate), petTypeIds.get(petType),
+                            firstOwnerId + owner);
+                    }
+
+                    @Override
+                    public void visit(int pet, LocalDate date, String description) {
+                        visits.add(nextVisitId[0]++, firstPetId + pet, Date.valueOf(date), description);
+                    }
+                });
+                visits.flush();
+            }
+            connection.commit();
+        }
+    }
+
+    private void restartSequences(int... nextIds) throws SQLException {
+        boolean postgres;
+        try {
+            postgres = "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new SQLException("Cannot tell the database", e);
+        }
+        for (int i = 0; i < SEQUENCES.length; i++) {
+            if (postgres) {
+                jdbcTemplate.queryForObject("SELECT setval(?, ?, false)", Long.class, SEQUENCES[i], nextIds[i]);
+            } else {
+                jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCES[i] + " RESTART WITH " + nextIds[i]);
+            }
+        }
+    }
+
+    private static final class ChunkCounter implements SyntheticData.OwnerSink {
+
+        private int pets;
+        private int visits;
+
+        @Override
+        public void owner(int owner, String firstName, String lastName, String address, String city, String telephone) {
+        }
+
+        @Override
+        public void pet(int pet, int owner, String name, LocalDate birthDate, int petType) {
+            pets++;
+        }
+
+        @Override
+        public void visit(int pet, LocalDate date, String description) {
+            visits++;
+        }
+    }
+
+    /**
+     * Rows of one table, sent as a JDBC batch once {@code batchSize} of them are pending. The rows of the parent
+     * table are sent first, so that foreign keys always point at inserted rows.
+     */
+    private final class BatchInsert implements AutoCloseable {
+
+        private final String sql;
+        private final PreparedStatement statement;
+        private final BatchInsert parent;
+        private int pending;
+
+        private BatchInsert(Connection connection, BatchInsert parent, String sql) throws SQLException {
+            this.sql = sql;
+            this.statement = connection.prepareStatement(sql);
+            this.parent = parent;
+        }
+
+        void add(Object... values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    statement.setObject(i + 1, values[i]);
+                }
+                statement.addBatch();
+                if (++pending == properties.batchSize()) {
+                    flush();
+                }
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException("Synthetic data insert", sql, e);
+            }
+        }
+
+        void flush() throws SQLException {
+            if (parent != null) {
+                parent.flush();
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.springframework.samples.petclinic.generator;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * What {@link DataGenerator} adds to the database, see {@link SyntheticData} for the distributions.
+ *
+ * @param seed             the same seed yields the same data
+ * @param owners           owners to add, with 1.8 pets each on average
+ * @param meanVisitsPerPet average length of a pet's visit history, so 1,000,000 owners at the default of 5
+ *                         come with about 9,000,000 visits
+ * @param vets             vets to add, with up to three specialties each
+ * @param specialties      specialties to add
+ * @param ownersPerChunk   owners generated and committed together, along with their pets and visits
+ * @param batchSize        rows sent per JDBC batch
+ * @param threads          chunks loaded in parallel, each over its own connection: keep it below the pool size
+ */
+@ConfigurationProperties("petclinic.generator")
+public record DataGeneratorProperties(
+    @DefaultValue("42") long seed,
+    @DefaultValue("100000") int owners,
+    @DefaultValue("5") double meanVisitsPerPet,
+    @DefaultValue("200") int vets,
+    @DefaultValue("20") int specialties,
+    @DefaultValue("5000") int ownersPerChunk,
+    @DefaultValue("1000") int batchSize,
+    @DefaultValue("4") int threads) {
+}
@@ -0,0 +1,215 @@
+package org.springframework.samples.petclinic.generator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic owners, pets, visits and vets with skewed distributions: most owners have one pet
+ * and a few have many, visit histories are long-tailed, and common surnames, pet types and specialties
+ * come up far more often than rare ones.
+ * <p>
+ * Owners are generated in chunks, each from its own random stream derived from the seed and the chunk number,
+ * so that a chunk always yields the same rows whichever thread generates it and in whatever order.
+ */
+class SyntheticData {
+
+    /**
+     * Fixed rather than today, so that the same seed yields the same dates on every run.
+     */
+    static final LocalDate LATEST_VISIT = LocalDate.of(2025, 12, 31);
+    static final int MAX_PETS_PER_OWNER = 15;
+    static final int MAX_VISITS_PER_PET = 250;
+    static final int MAX_PET_AGE_DAYS = 18 * 365;
+
+    private static final double NO_PETS_SHARE = 0.08;
+    /**
+     * Pareto shape of the pets per owner: about 2 owners in 3 have a single pet, 1 in 15 has five or more.
+     */
+    private static final double PETS_SHAPE = 1.6;
+    /**
+     * Log-normal spread of the visits per pet around their mean.
+     */
+    private static final double VISITS_SIGMA = 1.0;
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+        "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah",
+        "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony", "Margaret", "Mark",
+        "Sandra", "Donald", "Ashley", "Steven", "Kimberly", "Paul", "Emily", "Andrew", "Donna", "Joshua", "Michelle",
+        "Maria", "José", "Zoë", "Renée", "Søren", "Aoife", "Chloé", "Björn"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+        "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor",
+        "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez",
+        "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores",
+        "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter", "Roberts", "Franklin",
+        "Coleman", "Escobito", "Estaban", "McTavish", "Schroeder", "Black", "O'Brien", "Müller", "Dubois"};
+    private static final String[] CITIES = {"Madison", "Sun Prairie", "McFarland", "Windsor", "Monona", "Waunakee",
+        "Middleton", "Verona", "Fitchburg", "Stoughton", "Oregon", "DeForest", "Cottage Grove", "Mount Horeb",
+        "Cross Plains", "Belleville", "Marshall", "Deerfield", "Cambridge", "Lodi"};
+    private static final String[] STREETS = {"Main St.", "Oak Ave.", "Maple Dr.", "Cedar Ln.", "Elm St.", "Pine Rd.",
+        "Lake St.", "Hill Rd.", "Park Ave.", "Washington Blvd.", "Lincoln Way", "Jefferson Ave.", "Sunset Dr.",
+        "River Rd.", "Meadow Ln.", "Prospect St.", "Church St.", "Spring St.", "Mill Rd.", "Forest Ave."};
+    private static final String[] PET_NAMES = {"Max", "Bella", "Charlie", "Luna", "Lucy", "Cooper", "Bailey", "Daisy",
+        "Sadie", "Molly", "Buddy", "Lola", "Stella", "Tucker", "Bentley", "Zoey", "Harley", "Maggie", "Riley", "Bear",
+        "Leo", "Basil", "Rosy", "Jewel", "Iggy", "George", "Samantha", "Lucky", "Freddy", "Mulligan", "Sly", "Oliver",
+        "Milo", "Simba", "Chloe", "Nala", "Coco", "Pepper", "Ginger", "Shadow"};
+    private static final String[] VISIT_DESCRIPTIONS = {"annual checkup", "rabies shot", "vaccination", "dental cleaning",
+        "weight check", "ear infection", "skin allergy", "limping", "blood test", "x-ray", "neutered", "spayed",
+        "stomach upset", "eye infection", "nail trim", "microchip", "flea treatment", "stitches removed",
+        "senior wellness exam", "follow-up"};
+    private static final String[] SPECIALTIES = {"radiology", "surgery", "dentistry", "internal medicine", "cardiology",
+        "dermatology", "oncology", "neurology", "ophthalmology", "anesthesia", "emergency care", "nutrition",
+        "behavior", "exotics", "orthopedics", "rehabilitation", "pathology", "pharmacology", "theriogenology",
+        "zoological medicine"};
+
+    private static final Zipf LAST_NAME_FREQUENCY = new Zipf(LAST_NAMES.length);
+
+    interface OwnerSink {
+
+        /**
+         * @param owner the owner's index within its chunk
+         */
+        void owner(int owner, String firstName, String lastName, String address, String city, String telephone);
+
+        /**
+         * @param pet     the pet's index within its chunk
+         * @param petType index into the pet types, most common first
+         */
+        void pet(int pet, int owner, String name, LocalDate birthDate, int petType);
+
+        void visit(int pet, LocalDate date, String description);
+    }
+
+    interface VetSink {
+
+        /**
+         * @param specialties indexes into the specialties, most common first
+         */
+        void vet(int vet, String firstName, String lastName, int[] specialties);
+    }
+
+    private final long seed;
+    private final double meanVisitsPerPet;
+    private final Zipf petTypeFrequency;
+
+    SyntheticData(long seed, double meanVisitsPerPet, int petTypes) {
+        this.seed = seed;
+        this.meanVisitsPerPet = meanVisitsPerPet;
+        this.petTypeFrequency = new Zipf(petTypes);
+    }
+
+    /**
+     * @param firstOwner index of the chunk's first owner among all generated owners, keeps owner details unique
+     */
+    void owners(int chunk, int firstOwner, int owners, OwnerSink sink) {
+        SplittableRandom random = random(chunk);
+        double visitsMu = Math.log(meanVisitsPerPet) - VISITS_SIGMA * VISITS_SIGMA / 2;
+        int pet = 0;
+        for (int owner = 0; owner < owners; owner++) {
+            int number = firstOwner + owner;
+            sink.owner(owner, pick(random, FIRST_NAMES), LAST_NAMES[LAST_NAME_FREQUENCY.next(random)],
+                (1 + number % 9_999) + " " + pick(random, STREETS), pick(random, CITIES),
+                "608" + String.format("%07d", random.nextInt(10_000_000)));
+            int pets = petsPerOwner(random);
+            for (int i = 0; i < pets; i++, pet++) {
+                LocalDate birthDate = LATEST_VISIT.minusDays(random.nextInt(MAX_PET_AGE_DAYS));
+                sink.pet(pet, owner, pick(random, PET_NAMES), birthDate, petTypeFrequency.next(random));
+                int visits = (int) Math.min(MAX_VISITS_PER_PET,
+                    Math.round(Math.exp(visitsMu + VISITS_SIGMA * random.nextGaussian())));
+                int lifetimeDays = (int) (LATEST_VISIT.toEpochDay() - birthDate.toEpochDay()) + 1;
+                int[] days = new int[visits];
+                for (int v = 0; v < visits; v++) {
+                    days[v] = random.nextInt(lifetimeDays);
+                }
+                Arrays.sort(days);
+                for (int day : days) {
+                    sink.visit(pet, birthDate.plusDays(day), pick(random, VISIT_DESCRIPTIONS));
+                }
+            }
+        }
+    }
+
+    /**
+     * The first {@code count} specialty names not already taken, numbered once the known ones run out.
+     */
+    static List<String> specialtyNames(int count, Set<String> taken) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; names.size() < count; i++) {
+            String name = SPECIALTIES[i % SPECIALTIES.length] + (i < SPECIALTIES.length ? "" : " " + (i / SPECIALTIES.length + 1));
+            if (!taken.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Vets have up to three distinct specialties, about a third of them none.
+     */
+    void vets(int vets, int specialties, VetSink sink) {
+        SplittableRandom random = random(-1);
+        Zipf specialtyFrequency = new Zipf(specialties);
+        for (int vet = 0; vet < vets; vet++) {
+            double draw = random.nextDouble();
+            int count = Math.min(specialties, draw < 0.3 ? 0 : draw < 0.8 ? 1 : draw < 0.95 ? 2 : 3);
+            int[] chosen = new int[count];
+            for (int i = 0; i < count; i++) {
+                int specialty;
+                do {
+                    specialty = specialtyFrequency.next(random);
+                } while (contains(chosen, i, specialty));
+                chosen[i] = specialty;
+            }
+            sink.vet(vet, pick(random, FIRST_NAMES), LAST_NAMES[LAST_NAME_FREQUENCY.next(random)], chosen);
+        }
+    }
+
+    private SplittableRandom random(int stream) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + stream);
+    }
+
+    private static int petsPerOwner(SplittableRandom random) {
+        if (random.nextDouble() < NO_PETS_SHARE) {
+            return 0;
+        }
+        return (int) Math.min(MAX_PETS_PER_OWNER, Math.pow(1 - random.nextDouble(), -1 / PETS_SHAPE));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Picks index i of n with a probability proportional to 1 / (i + 1).
+     */
+    static final class Zipf {
+
+        private final double[] cumulative;
+
+        Zipf(int n) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1.0 / (i + 1);
+                cumulative[i] = sum;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble(cumulative[cumulative.length - 1]));
+            return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+        }
+    }
+}
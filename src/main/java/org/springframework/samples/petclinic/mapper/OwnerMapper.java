@@ -2,9 +2,12 @@ package org.springframework.samples.petclinic.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.repository.OwnerSummary;
 import org.springframework.samples.petclinic.rest.dto.OwnerDto;
 import org.springframework.samples.petclinic.rest.dto.OwnerFieldsDto;
+import org.springframework.samples.petclinic.rest.dto.OwnerSummaryDto;
 
 import java.util.List;
 
@@ -13,10 +16,17 @@ public interface OwnerMapper {
 
     OwnerDto toOwnerDto(Owner owner);
 
+    @Named("withoutVisits")
+    @Mapping(target = "pets", qualifiedByName = "withoutVisits")
+    OwnerDto toOwnerDtoWithoutVisits(Owner owner);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "pets", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Owner toOwner(OwnerFieldsDto ownerDto);
 
     List<OwnerDto> toOwnerDtoCollection(List<Owner> ownerCollection);
 
+    List<OwnerSummaryDto> toOwnerSummaryDtos(List<OwnerSummary> summaries);
+
 }
@@ -2,6 +2,7 @@ package org.springframework.samples.petclinic.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.model.PetType;
 import org.springframework.samples.petclinic.rest.dto.PetDto;
@@ -17,20 +18,31 @@ public interface PetMapper {
     @Mapping(source = "visitsSortedByDate", target = "visits")
     PetDto toPetDto(Pet pet);
 
+    /**
+     * Leaves the visits empty, without loading them, for pets shown with their latest visits only.
+     */
+    @Named("withoutVisits")
+    @Mapping(source = "owner.id", target = "ownerId")
+    @Mapping(target = "visits", ignore = true)
+    PetDto toPetDtoWithoutVisits(Pet pet);
+
     List<PetDto> toPetsDto(List<Pet> pets);
 
     List<Pet> toPets(List<PetDto> pets);
 
     @Mapping(source = "ownerId", target = "owner.id")
+    @Mapping(target = "version", ignore = true)
     Pet toPet(PetDto petDto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", ignore = true)
     @Mapping(target = "visits", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Pet toPet(PetFieldsDto petFieldsDto);
 
     PetTypeDto toPetTypeDto(PetType petType);
 
+    @Mapping(target = "version", ignore = true)
     PetType toPetType(PetTypeDto petTypeDto);
 
     List<PetTypeDto> toPetTypeDtos(List<PetType> petTypes);
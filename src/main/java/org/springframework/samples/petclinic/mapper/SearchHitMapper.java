@@ -0,0 +1,22 @@
+package org.springframework.samples.petclinic.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.springframework.samples.petclinic.rest.dto.SearchHitDto;
+import org.springframework.samples.petclinic.search.SearchIndex;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface SearchHitMapper {
+
+    @Mapping(source = "document.kind", target = "kind")
+    @Mapping(source = "document.id", target = "id")
+    @Mapping(source = "document.ownerId", target = "ownerId")
+    @Mapping(source = "document.petId", target = "petId")
+    @Mapping(source = "document.title", target = "title")
+    SearchHitDto toSearchHitDto(SearchIndex.Hit hit);
+
+    List<SearchHitDto> toSearchHitDtos(List<SearchIndex.Hit> hits);
+
+}
@@ -1,6 +1,7 @@
 package org.springframework.samples.petclinic.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.samples.petclinic.model.Specialty;
 import org.springframework.samples.petclinic.rest.dto.SpecialtyDto;
 
@@ -8,6 +9,7 @@ import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface SpecialtyMapper {
+    @Mapping(target = "version", ignore = true)
     Specialty toSpecialty(SpecialtyDto specialtyDto);
 
     SpecialtyDto toSpecialtyDto(Specialty specialty);
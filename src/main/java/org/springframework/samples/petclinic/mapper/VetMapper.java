@@ -10,9 +10,11 @@ import java.util.List;
 
 @Mapper(componentModel = "spring", uses = SpecialtyMapper.class)
 public interface VetMapper {
+    @Mapping(target = "version", ignore = true)
     Vet toVet(VetDto vetDto);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Vet toVet(VetFieldsDto vetFieldsDto);
 
     VetDto toVetDto(Vet vet);
@@ -3,6 +3,7 @@ package org.springframework.samples.petclinic.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.repository.VisitSummary;
 import org.springframework.samples.petclinic.rest.dto.VisitDto;
 import org.springframework.samples.petclinic.rest.dto.VisitFieldsDto;
 
@@ -11,10 +12,12 @@ import java.util.List;
 @Mapper(componentModel = "spring", uses = PetMapper.class)
 public interface VisitMapper {
     @Mapping(source = "petId", target = "pet.id")
+    @Mapping(target = "version", ignore = true)
     Visit toVisit(VisitDto visitDto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "pet", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Visit toVisit(VisitFieldsDto visitFieldsDto);
 
     @Mapping(source = "pet.id", target = "petId")
@@ -22,4 +25,8 @@ public interface VisitMapper {
 
     List<VisitDto> toVisitsDto(List<Visit> visits);
 
+    VisitDto toVisitDto(VisitSummary visitSummary);
+
+    List<VisitDto> toVisitDtos(List<VisitSummary> visitSummaries);
+
 }
@@ -4,29 +4,62 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import org.springframework.beans.support.MutableSortDefinition;
-import org.springframework.beans.support.PropertyComparator;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.core.style.ToStringCreator;
+import org.springframework.samples.petclinic.search.SearchIndexEntityListener;
 
 import java.util.*;
 
 @Entity
 @Table(name = "owners")
+@EntityListeners(SearchIndexEntityListener.class)
+@NamedEntityGraph(name = Owner.WITH_PETS_AND_VISITS,
+    attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+    subgraphs = @NamedSubgraph(name = "pet", attributeNodes = {@NamedAttributeNode("type"), @NamedAttributeNode("visits")}))
+@NamedEntityGraph(name = Owner.WITH_PETS,
+    attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+    subgraphs = @NamedSubgraph(name = "pet", attributeNodes = @NamedAttributeNode("type")))
 @Getter
 @Setter
 public class Owner {
+    public static final String WITH_PETS_AND_VISITS = "Owner.withPetsAndVisits";
+    public static final String WITH_PETS = "Owner.withPets";
+
+    /**
+     * By name, ignoring case, pets without a name last.
+     */
+    private static final Comparator<Pet> PET_ORDER =
+        Comparator.comparing(Pet::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "owners_seq")
+    @SequenceGenerator(name = "owners_seq", sequenceName = "owners_seq", allocationSize = 50)
     protected Integer id;
 
+    /**
+     * Optimistic lock; versions are also what the ETags of the REST API are computed from.
+     */
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
     @NotEmpty
     protected String firstName;
 
     @NotEmpty
     protected String lastName;
 
+    /**
+     * Lower-cased copy of {@link #lastName}, kept by {@link #normalizeLastName()}, so that case-insensitive
+     * prefix searches are a plain index range scan on every database.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "last_name_lower")
+    private String lastNameLower;
+
     @NotEmpty
     private String address;
 
@@ -38,12 +71,12 @@ public class Owner {
     @Pattern(regexp = "^[0-9]{10}$", message = "Phone number must be exactly 10 digits")
     private String telephone;
 
-    @OneToMany(cascade = CascadeType.ALL, mappedBy = "owner", fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, mappedBy = "owner")
     private Set<Pet> pets = new HashSet<>();
 
     public List<Pet> getPets() {
         List<Pet> sortedPets = new ArrayList<>(pets);
-        PropertyComparator.sort(sortedPets, new MutableSortDefinition("name", true, true));
+        sortedPets.sort(PET_ORDER);
         return Collections.unmodifiableList(sortedPets);
     }
 
@@ -51,6 +84,12 @@ public class Owner {
         this.pets = new HashSet<>(pets);
     }
 
+    @PrePersist
+    @PreUpdate
+    void normalizeLastName() {
+        lastNameLower = lastName == null ? null : lastName.toLowerCase(Locale.ROOT);
+    }
+
     public void addPet(Pet pet) {
         pets.add(pet);
         pet.setOwner(this);
@@ -5,21 +5,39 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.PastOrPresent;
 import lombok.Getter;
 import lombok.Setter;
-import org.springframework.beans.support.MutableSortDefinition;
-import org.springframework.beans.support.PropertyComparator;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.samples.petclinic.search.SearchIndexEntityListener;
 
 import java.time.LocalDate;
 import java.util.*;
 
 @Entity
 @Table(name = "pets")
+@EntityListeners(SearchIndexEntityListener.class)
+@NamedEntityGraph(name = Pet.WITH_TYPE_AND_VISITS,
+    attributeNodes = {@NamedAttributeNode("type"), @NamedAttributeNode("visits")})
+@NamedEntityGraph(name = Pet.WITH_TYPE, attributeNodes = @NamedAttributeNode("type"))
 @Getter
 @Setter
 public class Pet {
+    public static final String WITH_TYPE_AND_VISITS = "Pet.withTypeAndVisits";
+    public static final String WITH_TYPE = "Pet.withType";
+
+    /**
+     * Most recent first, visits without a date first.
+     */
+    private static final Comparator<Visit> VISIT_ORDER =
+        Comparator.comparing(Visit::getDate, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder())).reversed();
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pets_seq")
+    @SequenceGenerator(name = "pets_seq", sequenceName = "pets_seq", allocationSize = 50)
     protected Integer id;
 
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
     @NotEmpty
     private String name;
 
@@ -31,16 +49,16 @@ public class Pet {
     @JoinColumn(name = "type_id")
     private PetType type;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private Owner owner;
 
-    @OneToMany(cascade = CascadeType.ALL, mappedBy = "pet", fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, mappedBy = "pet")
     private Set<Visit> visits = new HashSet<>();
 
     public List<Visit> getVisitsSortedByDate() {
         List<Visit> sortedVisits = new ArrayList<>(visits);
-        PropertyComparator.sort(sortedVisits, new MutableSortDefinition("date", false, false));
+        sortedVisits.sort(VISIT_ORDER);
         return Collections.unmodifiableList(sortedVisits);
     }
 
@@ -3,9 +3,14 @@ package org.springframework.samples.petclinic.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "specialties")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 public class Specialty {
@@ -14,6 +19,10 @@ public class Specialty {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     protected Integer id;
 
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
     private String name;
 
 }
@@ -21,7 +21,7 @@ public class User {
 
     private Boolean enabled;
 
-    @OneToMany(cascade = CascadeType.ALL, mappedBy = "user", fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, mappedBy = "user")
     private Set<Role> roles;
 
 
@@ -4,25 +4,33 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.samples.petclinic.search.SearchIndexEntityListener;
 
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "visits")
+@EntityListeners(SearchIndexEntityListener.class)
 @Getter
 @Setter
 public class Visit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "visits_seq")
+    @SequenceGenerator(name = "visits_seq", sequenceName = "visits_seq", allocationSize = 50)
     protected Integer id;
 
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
     @Column(name = "visit_date", columnDefinition = "DATE")
     private LocalDate date = LocalDate.now();
 
     @NotEmpty
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pet_id")
     private Pet pet;
 
@@ -0,0 +1,150 @@
+package org.springframework.samples.petclinic.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.lang.Nullable;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Reads the whole owner → pet → visit aggregate through a single forward-only JDBC cursor,
+ * handing over one fully assembled (detached) {@link Owner} at a time.
+ * <p>
+ * Memory stays flat regardless of table size: only the owner currently being assembled is kept on the heap,
+ * and nothing is registered in a persistence context.
+ */
+@Repository
+public class OwnerCursorRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    static final String SELECT_OWNER_AGGREGATES = """
+        SELECT o.id, o.first_name, o.last_name, o.address, o.city, o.telephone,
+               p.id AS pet_id, p.name AS pet_name, p.birth_date,
+               t.id AS type_id, t.name AS type_name,
+               v.id AS visit_id, v.visit_date, v.description
+        FROM owners o
+        LEFT JOIN pets p ON p.owner_id = o.id
+        LEFT JOIN types t ON t.id = p.type_id
+        LEFT JOIN visits v ON v.pet_id = p.id
+        """;
+
+    private static final String WHERE_LAST_NAME_PREFIX = "WHERE o.last_name_lower LIKE ? ESCAPE '\\'\n";
+
+    static final String ORDER_BY_OWNER_AND_PET = "ORDER BY o.id, p.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OwnerCursorRepository(DataSource dataSource) {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Owners are delivered in id order: the rows can then be read along the primary key of owners, with only the
+     * pets of one owner to sort at a time, instead of sorting the whole join before the first row comes back.
+     * The transaction is required for PostgreSQL to use a server-side cursor instead of buffering the result.
+     */
+    @Transactional(readOnly = true)
+    public void forEachOwner(Consumer<Owner> action) {
+        forEachOwner(null, action);
+    }
+
+    /**
+     * Same as {@link #forEachOwner(Consumer)}, restricted to the owners whose last name starts with the given
+     * prefix, ignoring case; wildcards in the prefix match literally. A {@code null} prefix matches every owner.
+     */
+    @Transactional(readOnly = true)
+    public void forEachOwner(@Nullable String lastNamePrefix, Consumer<Owner> action) {
+        OwnerAssembler assembler = new OwnerAssembler(action);
+        if (lastNamePrefix == null) {
+            jdbcTemplate.query(SELECT_OWNER_AGGREGATES + ORDER_BY_OWNER_AND_PET, assembler);
+        } else {
+            jdbcTemplate.query(SELECT_OWNER_AGGREGATES + WHERE_LAST_NAME_PREFIX + ORDER_BY_OWNER_AND_PET, assembler,
+                EscapeCharacter.DEFAULT.escape(lastNamePrefix.toLowerCase(Locale.ROOT)) + "%");
+        }
+        assembler.flush();
+    }
+
+    /**
+     * Groups consecutive rows of the same owner (and pet) back into an object graph.
+     */
+    private static final class OwnerAssembler implements RowCallbackHandler {
+
+        private final Consumer<Owner> action;
+        private Owner owner;
+        private Pet pet;
+
+        private OwnerAssembler(Consumer<Owner> action) {
+            this.action = action;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            int ownerId = rs.getInt("id");
+            if (owner == null || owner.getId() != ownerId) {
+                flush();
+                owner = mapOwner(rs);
+                pet = null;
+            }
+            int petId = rs.getInt("pet_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            if (pet == null || pet.getId() != petId) {
+                pet = mapPet(rs);
+                owner.addPet(pet);
+            }
+            rs.getInt("visit_id");
+            if (!rs.wasNull()) {
+                pet.addVisit(mapVisit(rs));
+            }
+        }
+
+        void flush() {
+            if (owner != null) {
+                action.accept(owner);
+                owner = null;
+            }
+        }
+
+        private static Owner mapOwner(ResultSet rs) throws SQLException {
+            return new Owner()
+                .setId(rs.getInt("id"))
+                .setFirstName(rs.getString("first_name"))
+                .setLastName(rs.getString("last_name"))
+                .setAddress(rs.getString("address"))
+                .setCity(rs.getString("city"))
+                .setTelephone(rs.getString("telephone"));
+        }
+
+        private static Pet mapPet(ResultSet rs) throws SQLException {
+            Date birthDate = rs.getDate("birth_date");
+            return new Pet()
+                .setId(rs.getInt("pet_id"))
+                .setName(rs.getString("pet_name"))
+                .setBirthDate(birthDate == null ? null : birthDate.toLocalDate())
+                .setType(new PetType().setId(rs.getInt("type_id")).setName(rs.getString("type_name")));
+        }
+
+        private static Visit mapVisit(ResultSet rs) throws SQLException {
+            Date visitDate = rs.getDate("visit_date");
+            return new Visit()
+                .setId(rs.getInt("visit_id"))
+                .setDate(visitDate == null ? null : visitDate.toLocalDate())
+                .setDescription(rs.getString("description"));
+        }
+    }
+}
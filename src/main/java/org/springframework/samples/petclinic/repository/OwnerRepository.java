@@ -1,22 +1,104 @@
 package org.springframework.samples.petclinic.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface OwnerRepository extends Repository<Owner, Integer> {
 
-    List<Owner> findByLastNameIgnoreCaseStartingWith(String lastName);
+    /**
+     * @param lastNamePrefix lower-cased, see {@link Owner#getLastNameLower()}
+     */
+    @EntityGraph(Owner.WITH_PETS_AND_VISITS)
+    List<Owner> findByLastNameLowerStartingWith(String lastNamePrefix);
 
+    @EntityGraph(Owner.WITH_PETS_AND_VISITS)
     Optional<Owner> findById(int id);
 
+    /**
+     * Same as {@link #findById(int)} for rendering only: loaded read-only, so Hibernate keeps no
+     * dirty-checking snapshot of the owner, its pets and their visits.
+     */
+    @EntityGraph(Owner.WITH_PETS_AND_VISITS)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Owner o WHERE o.id = :id")
+    Optional<Owner> findAggregateById(@Param("id") int id);
+
+    /**
+     * The owner with its pets and their types but not their visits, for owners shown with their latest visits only.
+     */
+    @EntityGraph(Owner.WITH_PETS)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Owner o WHERE o.id = :id")
+    Optional<Owner> findWithPetsById(@Param("id") int id);
+
+    /**
+     * The (id, version) of the owner and of every pet, pet type and visit shown with it, meant to be
+     * hashed into an ETag without loading the aggregate. Empty if there is no such owner.
+     */
+    @Query("""
+        SELECT o.version, p.id, p.version, t.id, t.version, v.id, v.version
+        FROM Owner o LEFT JOIN o.pets p LEFT JOIN p.type t LEFT JOIN p.visits v
+        WHERE o.id = :id
+        ORDER BY p.id, v.id
+        """)
+    List<Object[]> findAggregateVersionsById(@Param("id") int id);
+
+    @Transactional
     Owner save(Owner owner);
 
+    /**
+     * Stores the owners with their pets and visits (cascaded) in a single transaction.
+     */
+    @Transactional
+    List<Owner> saveAll(Iterable<Owner> owners);
+
+    @EntityGraph(Owner.WITH_PETS_AND_VISITS)
     List<Owner> findAll();
 
+    @Transactional
     void delete(Owner owner);
 
+    /**
+     * Pages are selected by id first, so that the row limit is applied in SQL
+     * rather than in memory over the fetched pets/visits join.
+     */
+    @Query("SELECT o.id FROM Owner o ORDER BY o.lastName, o.id")
+    List<Integer> findFirstPageIds(Limit limit);
+
+    /**
+     * The keyset is compared as a row value, a seek on the (last_name, id) index, see
+     * {@link VisitRepository#findSummariesAfter}.
+     */
+    @Query("""
+        SELECT o.id FROM Owner o
+        WHERE (o.lastName, o.id) > (:lastName, :id)
+        ORDER BY o.lastName, o.id
+        """)
+    List<Integer> findPageIdsAfter(@Param("lastName") String lastName, @Param("id") int id, Limit limit);
+
+    @EntityGraph(Owner.WITH_PETS_AND_VISITS)
+    List<Owner> findByIdInOrderByLastNameAscIdAsc(Collection<Integer> ids);
+
+    @Query("""
+        SELECT new org.springframework.samples.petclinic.repository.OwnerSummary(
+            o.id, o.firstName, o.lastName, o.address, o.city, o.telephone, SIZE(o.pets))
+        FROM Owner o
+        WHERE o.lastNameLower LIKE :#{escape(#lastNamePrefix)}% ESCAPE :#{escapeCharacter()}
+        ORDER BY o.lastName, o.id
+        """)
+    List<OwnerSummary> findSummariesByLastNameStartingWith(@Param("lastNamePrefix") String lastNamePrefix, Limit limit);
+
 }
@@ -0,0 +1,15 @@
+package org.springframework.samples.petclinic.repository;
+
+/**
+ * Read-only projection of an owner's own columns plus the number of pets,
+ * selected without hydrating any {@link org.springframework.samples.petclinic.model.Owner} entity.
+ */
+public record OwnerSummary(
+    Integer id,
+    String firstName,
+    String lastName,
+    String address,
+    String city,
+    String telephone,
+    int petCount) {
+}
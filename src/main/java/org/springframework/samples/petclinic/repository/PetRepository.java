@@ -1,25 +1,73 @@
 package org.springframework.samples.petclinic.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+@Transactional(readOnly = true)
 public interface PetRepository extends Repository<Pet, Integer> {
 
     @Query("SELECT ptype FROM PetType ptype ORDER BY ptype.name")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @ReadFromPrimary
     List<PetType> findPetTypes();
 
+    @EntityGraph(Pet.WITH_TYPE_AND_VISITS)
     Optional<Pet> findById(int id);
 
+    /**
+     * The pet only if it belongs to the given owner, with its type and visits, in one statement.
+     */
+    @EntityGraph(Pet.WITH_TYPE_AND_VISITS)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Pet> findByIdAndOwnerId(int id, int ownerId);
+
+    /**
+     * The pet with its type but not its visits, for pets shown with their latest visits only.
+     */
+    @EntityGraph(Pet.WITH_TYPE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Pet> findWithTypeById(int id);
+
+    @EntityGraph(Pet.WITH_TYPE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Pet> findWithTypeByIdAndOwnerId(int id, int ownerId);
+
+    /**
+     * The version of the pet and the (id, version) of its type and visits, meant to be hashed into an ETag
+     * without loading the pet. Empty if there is no such pet.
+     */
+    @Query("""
+        SELECT p.version, t.id, t.version, v.id, v.version
+        FROM Pet p LEFT JOIN p.type t LEFT JOIN p.visits v
+        WHERE p.id = :id
+        ORDER BY v.id
+        """)
+    List<Object[]> findAggregateVersionsById(@Param("id") int id);
+
+    @Transactional
     Pet save(Pet pet);
 
+    @EntityGraph(Pet.WITH_TYPE_AND_VISITS)
     List<Pet> findAll();
 
+    @Transactional
     void delete(Pet pet);
 
     void flush();
+
+    @Query("SELECT p.id FROM Pet p WHERE p.id IN :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
@@ -1,19 +1,36 @@
 package org.springframework.samples.petclinic.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
 import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
+@ReadFromPrimary
 public interface PetTypeRepository extends Repository<PetType, Integer> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<PetType> findAll();
 
     Optional<PetType> findById(int id);
 
+    @Query("""
+        SELECT new org.springframework.samples.petclinic.repository.VersionStamp(
+            COUNT(t), COALESCE(SUM(t.id), 0), COALESCE(SUM(t.version), 0))
+        FROM PetType t
+        """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    VersionStamp findVersionStamp();
+
+    @Transactional
     PetType save(PetType petType);
 
+    @Transactional
     void delete(PetType petType);
 
 }
@@ -0,0 +1,117 @@
+package org.springframework.samples.petclinic.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.lang.Nullable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams the owner → pet → visit aggregate through R2DBC: the same single query as {@link OwnerCursorRepository},
+ * without a thread waiting on the rows. Rows are read as the subscriber requests owners, and only the rows of the
+ * owner being assembled are kept.
+ */
+@Repository
+public class ReactiveOwnerRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String WHERE_LAST_NAME_PREFIX = "WHERE o.last_name_lower LIKE :lastNamePrefix ESCAPE '\\'\n";
+
+    private final ReactiveReadDatabase database;
+
+    public ReactiveOwnerRepository(ReactiveReadDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Owners in id order, restricted to those whose last name starts with the given prefix, ignoring case,
+     * unless it is {@code null}; wildcards in the prefix match literally.
+     */
+    public Flux<Owner> findAll(@Nullable String lastNamePrefix) {
+        DatabaseClient.GenericExecuteSpec query;
+        if (lastNamePrefix == null) {
+            query = database.client().sql(OwnerCursorRepository.SELECT_OWNER_AGGREGATES
+                + OwnerCursorRepository.ORDER_BY_OWNER_AND_PET);
+        } else {
+            query = database.client().sql(OwnerCursorRepository.SELECT_OWNER_AGGREGATES + WHERE_LAST_NAME_PREFIX
+                    + OwnerCursorRepository.ORDER_BY_OWNER_AND_PET)
+                .bind("lastNamePrefix", EscapeCharacter.DEFAULT.escape(lastNamePrefix.toLowerCase(Locale.ROOT)) + "%");
+        }
+        Flux<Owner> owners = query
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(OwnerRow::of)
+            .all()
+            .bufferUntilChanged(OwnerRow::id)
+            .map(ReactiveOwnerRepository::assemble);
+        return database.readOnly(owners);
+    }
+
+    /**
+     * Groups the rows of one owner back into an object graph; the rows of a pet are consecutive.
+     */
+    private static Owner assemble(List<OwnerRow> rows) {
+        OwnerRow first = rows.get(0);
+        Owner owner = new Owner()
+            .setId(first.id())
+            .setFirstName(first.firstName())
+            .setLastName(first.lastName())
+            .setAddress(first.address())
+            .setCity(first.city())
+            .setTelephone(first.telephone());
+        Pet pet = null;
+        for (OwnerRow row : rows) {
+            if (row.petId() == null) {
+                continue;
+            }
+            if (pet == null || !row.petId().equals(pet.getId())) {
+                pet = new Pet()
+                    .setId(row.petId())
+                    .setName(row.petName())
+                    .setBirthDate(row.birthDate())
+                    .setType(new PetType().setId(row.typeId()).setName(row.typeName()));
+                owner.addPet(pet);
+            }
+            if (row.visitId() != null) {
+                pet.addVisit(new Visit().setId(row.visitId()).setDate(row.visitDate()).setDescription(row.description()));
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * A row copied out of the driver's buffers, which are released once the row is mapped.
+     */
+    private record OwnerRow(int id, String firstName, String lastName, String address, String city,
+                            String telephone, @Nullable Integer petId, @Nullable String petName,
+                            @Nullable LocalDate birthDate, @Nullable Integer typeId, @Nullable String typeName,
+                            @Nullable Integer visitId, @Nullable LocalDate visitDate, @Nullable String description) {
+
+        static OwnerRow of(Readable row) {
+            return new OwnerRow(
+                row.get("id", Integer.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("address", String.class),
+                row.get("city", String.class),
+                row.get("telephone", String.class),
+                row.get("pet_id", Integer.class),
+                row.get("pet_name", String.class),
+                row.get("birth_date", LocalDate.class),
+                row.get("type_id", Integer.class),
+                row.get("type_name", String.class),
+                row.get("visit_id", Integer.class),
+                row.get("visit_date", LocalDate.class),
+                row.get("description", String.class));
+        }
+    }
+}
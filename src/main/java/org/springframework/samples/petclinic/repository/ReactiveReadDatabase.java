@@ -0,0 +1,58 @@
+package org.springframework.samples.petclinic.repository;
+
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+
+/**
+ * The R2DBC connection pool the reactive repositories read through, and read-only transactions on it.
+ * <p>
+ * Its transaction manager is kept out of the application context: {@code @Transactional} would no longer know
+ * which of two transaction managers to use.
+ */
+public class ReactiveReadDatabase implements DisposableBean {
+
+    private static final TransactionDefinition READ_ONLY = readOnly();
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator readOnlyTransaction;
+
+    public ReactiveReadDatabase(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        this.readOnlyTransaction = TransactionalOperator.create(new R2dbcTransactionManager(connectionPool), READ_ONLY);
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    DatabaseClient client() {
+        return databaseClient;
+    }
+
+    /**
+     * Runs the query in a read-only transaction, which PostgreSQL needs to send the rows in batches of the
+     * statement's fetch size, as they are requested, instead of all at once.
+     */
+    <T> Flux<T> readOnly(Flux<T> query) {
+        return readOnlyTransaction.transactional(query);
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private static TransactionDefinition readOnly() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
+}
@@ -0,0 +1,70 @@
+package org.springframework.samples.petclinic.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.lang.Nullable;
+import org.springframework.samples.petclinic.model.Specialty;
+import org.springframework.samples.petclinic.model.Vet;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Streams vets with their specialties through R2DBC, like {@link ReactiveOwnerRepository} does for owners.
+ */
+@Repository
+public class ReactiveVetRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_VETS = """
+        SELECT v.id, v.first_name, v.last_name, s.id AS specialty_id, s.name AS specialty_name
+        FROM vets v
+        LEFT JOIN vet_specialties vs ON vs.vet_id = v.id
+        LEFT JOIN specialties s ON s.id = vs.specialty_id
+        ORDER BY v.id, s.name
+        """;
+
+    private final ReactiveReadDatabase database;
+
+    public ReactiveVetRepository(ReactiveReadDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Vets in id order, their specialties by name.
+     */
+    public Flux<Vet> findAll() {
+        Flux<Vet> vets = database.client().sql(SELECT_VETS)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(VetRow::of)
+            .all()
+            .bufferUntilChanged(VetRow::id)
+            .map(ReactiveVetRepository::assemble);
+        return database.readOnly(vets);
+    }
+
+    private static Vet assemble(List<VetRow> rows) {
+        VetRow first = rows.get(0);
+        Vet vet = new Vet().setId(first.id()).setFirstName(first.firstName()).setLastName(first.lastName());
+        for (VetRow row : rows) {
+            if (row.specialtyId() != null) {
+                vet.addSpecialty(new Specialty().setId(row.specialtyId()).setName(row.specialtyName()));
+            }
+        }
+        return vet;
+    }
+
+    private record VetRow(int id, String firstName, String lastName,
+                          @Nullable Integer specialtyId, @Nullable String specialtyName) {
+
+        static VetRow of(Readable row) {
+            return new VetRow(
+                row.get("id", Integer.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("specialty_id", Integer.class),
+                row.get("specialty_name", String.class));
+        }
+    }
+}
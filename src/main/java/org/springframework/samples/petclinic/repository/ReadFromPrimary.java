@@ -0,0 +1,23 @@
+package org.springframework.samples.petclinic.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks reads whose results are kept in caches shared by every client: the query cache, the second-level cache,
+ * the recent visits or the search index. They run in a read-write transaction, which is never routed to a replica.
+ * <p>
+ * A replica that has not caught up yet would otherwise hand out rows older than the write that just invalidated
+ * the cache, and they would be cached as current until the next write to the same data.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Transactional
+public @interface ReadFromPrimary {
+}
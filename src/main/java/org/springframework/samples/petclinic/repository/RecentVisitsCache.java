@@ -0,0 +1,147 @@
+package org.springframework.samples.petclinic.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The most recent visits of each pet, so that a pet or an owner can be shown with its latest few visits without
+ * reading and sorting its whole visit history.
+ * <p>
+ * Holds up to {@code visitsPerPet} visits per pet, most recent first. The pets missing from the cache are loaded
+ * together, with one query ranking the visits of each pet. Added visits are merged into the cached visits of their
+ * pet, updated or deleted visits and deleted pets evict their pet, once the writing transaction has committed, so a
+ * concurrent read cannot cache rows that are rolled back. A load that overlaps such a commit may have read the
+ * visits before it: its pets are evicted again, and every entry expires after {@code timeToLive} in any case. Pets are evicted least recently used first once
+ * {@code maximumVisits} visits are held.
+ */
+@Component
+@EnableConfigurationProperties(RecentVisitsProperties.class)
+public class RecentVisitsCache {
+
+    /**
+     * The order of {@link VisitRepository#findRecentSummariesByPetIdIn}.
+     */
+    private static final Comparator<VisitSummary> MOST_RECENT_FIRST =
+        Comparator.comparing(VisitSummary::date).thenComparing(VisitSummary::id).reversed();
+
+    private final VisitRepository visitRepository;
+    private final int visitsPerPet;
+    private final Cache<Integer, List<VisitSummary>> recentVisits;
+    /**
+     * Counts the evictions, so that a load can tell whether a write committed while it ran.
+     */
+    private final AtomicLong writes = new AtomicLong();
+
+    public RecentVisitsCache(VisitRepository visitRepository, RecentVisitsProperties properties) {
+        this.visitRepository = visitRepository;
+        this.visitsPerPet = properties.visitsPerPet();
+        this.recentVisits = Caffeine.newBuilder()
+            .maximumWeight(properties.maximumVisits())
+            .weigher((Integer petId, List<VisitSummary> visits) -> 1 + visits.size())
+            .expireAfterWrite(properties.timeToLive())
+            .build();
+    }
+
+    /**
+     * @return up to {@code count} visits of the pet, most recent first
+     */
+    public List<VisitSummary> latest(int petId, int count) {
+        return latest(List.of(petId), count).get(petId);
+    }
+
+    /**
+     * @return up to {@code count} visits of each pet, most recent first
+     */
+    public Map<Integer, List<VisitSummary>> latest(Collection<Integer> petIds, int count) {
+        if (count > visitsPerPet) {
+            return load(petIds, count);
+        }
+        long writesBefore = writes.get();
+        Map<Integer, List<VisitSummary>> cached = recentVisits.getAll(petIds, missing -> load(missing, visitsPerPet));
+        if (writes.get() != writesBefore) {
+            recentVisits.invalidateAll(petIds);
+        }
+        Map<Integer, List<VisitSummary>> latest = new HashMap<>();
+        cached.forEach((petId, visits) -> latest.put(petId, visits.subList(0, Math.min(count, visits.size()))));
+        return latest;
+    }
+
+    private Map<Integer, List<VisitSummary>> load(Collection<? extends Integer> petIds, int count) {
+        Map<Integer, List<VisitSummary>> loaded = new HashMap<>();
+        petIds.forEach(petId -> loaded.put(petId, new ArrayList<>()));
+        for (VisitSummary visit : visitRepository.findRecentSummariesByPetIdIn(List.copyOf(petIds), count)) {
+            loaded.get(visit.petId()).add(visit);
+        }
+        loaded.replaceAll((petId, visits) -> List.copyOf(visits));
+        return loaded;
+    }
+
+    /**
+     * Adds the visit to the cached visits of its pet once the current transaction commits, so that the next read
+     * of the pet is still served from the cache. An undated visit evicts the pet instead: where it sorts is up to
+     * the database.
+     */
+    public void visitAdded(Visit visit) {
+        afterCommit(() -> {
+            VisitSummary added = new VisitSummary(visit.getId(), visit.getDate(), visit.getDescription(),
+                visit.getPet().getId());
+            writes.incrementAndGet();
+            recentVisits.asMap().computeIfPresent(added.petId(), (petId, visits) -> merge(visits, added));
+        });
+    }
+
+    /**
+     * Evicts the visits of the pets once the current transaction commits, for visits that were changed or deleted.
+     */
+    public void visitsChanged(Collection<Integer> petIds) {
+        List<Integer> evicted = List.copyOf(petIds);
+        afterCommit(() -> {
+            // counted first: a load that misses the count started after the commit, or is evicted here
+            writes.incrementAndGet();
+            recentVisits.invalidateAll(evicted);
+        });
+    }
+
+    /**
+     * @return the visits with the added one in place, at most {@code visitsPerPet} of them; {@code null}, which
+     * evicts the pet, if any of them is undated. A load that ran after the commit already has it.
+     */
+    private List<VisitSummary> merge(List<VisitSummary> visits, VisitSummary added) {
+        if (visits.stream().anyMatch(visit -> visit.id().equals(added.id()))) {
+            return visits;
+        }
+        if (added.date() == null || visits.stream().anyMatch(visit -> visit.date() == null)) {
+            return null;
+        }
+        List<VisitSummary> merged = new ArrayList<>(visits);
+        merged.add(added);
+        merged.sort(MOST_RECENT_FIRST);
+        return List.copyOf(merged.subList(0, Math.min(visitsPerPet, merged.size())));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
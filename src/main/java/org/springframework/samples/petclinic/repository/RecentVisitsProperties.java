@@ -0,0 +1,20 @@
+package org.springframework.samples.petclinic.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the cache of each pet's most recent visits, see {@link RecentVisitsCache}.
+ *
+ * @param visitsPerPet  how many of a pet's most recent visits are kept; asking for more reads them from the database
+ * @param maximumVisits maximum number of visits held across all pets (a pet without visits counts as one)
+ * @param timeToLive    how long a pet's visits are kept after they were loaded
+ */
+@ConfigurationProperties("petclinic.recent-visits")
+public record RecentVisitsProperties(
+    @DefaultValue("10") int visitsPerPet,
+    @DefaultValue("100000") long maximumVisits,
+    @DefaultValue("10m") Duration timeToLive) {
+}
@@ -1,22 +1,39 @@
 package org.springframework.samples.petclinic.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
 import org.springframework.samples.petclinic.model.Specialty;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+@ReadFromPrimary
 public interface SpecialtyRepository extends Repository<Specialty, Integer> {
 
     Optional<Specialty> findById(int id);
 
     List<Specialty> findSpecialtiesByNameIn(Set<String> names);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Specialty> findAll();
 
+    @Query("""
+        SELECT new org.springframework.samples.petclinic.repository.VersionStamp(
+            COUNT(s), COALESCE(SUM(s.id), 0), COALESCE(SUM(s.version), 0))
+        FROM Specialty s
+        """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    VersionStamp findVersionStamp();
+
+    @Transactional
     Specialty save(Specialty specialty);
 
+    @Transactional
     void delete(Specialty specialty);
 
 }
@@ -0,0 +1,13 @@
+package org.springframework.samples.petclinic.repository;
+
+/**
+ * Summary of a table's (id, version) pairs that changes whenever a row is inserted, updated or deleted:
+ * ids are never reused and only grow, versions only grow. Cheap to compute, and to cache in the query
+ * cache, which Hibernate invalidates on every write to the table.
+ *
+ * @param count      number of rows
+ * @param idSum      sum of the ids
+ * @param versionSum sum of the versions
+ */
+public record VersionStamp(long count, long idSum, long versionSum) {
+}
@@ -1,23 +1,42 @@
 package org.springframework.samples.petclinic.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.model.Vet;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+@ReadFromPrimary
 public interface VetRepository extends Repository<Vet, Integer> {
     @Query("SELECT DISTINCT v FROM Vet v LEFT JOIN FETCH v.specialties")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Vet> findAll();
 
     @Query("SELECT v FROM Vet v LEFT JOIN FETCH v.specialties WHERE v.id = :id")
     Optional<Vet> findById(@Param("id") int id);
 
+    /**
+     * Covers the vet_specialties links too: changing a vet's specialties increments the vet's version.
+     */
+    @Query("""
+        SELECT new org.springframework.samples.petclinic.repository.VersionStamp(
+            COUNT(v), COALESCE(SUM(v.id), 0), COALESCE(SUM(v.version), 0))
+        FROM Vet v
+        """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    VersionStamp findVersionStamp();
+
+    @Transactional
     void save(Vet vet);
 
+    @Transactional
     void delete(Vet vet);
 
 }
@@ -1,21 +1,104 @@
 package org.springframework.samples.petclinic.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface VisitRepository extends Repository<Visit, Integer> {
 
     Optional<Visit> findById(int id);
 
+    @Query("SELECT v.version FROM Visit v WHERE v.id = :id")
+    Optional<Integer> findVersionById(@Param("id") int id);
+
+    @Transactional
     Visit save(Visit visit);
 
+    @Transactional
+    List<Visit> saveAll(Iterable<Visit> visits);
+
     List<Visit> findAll();
 
+    @Transactional
     void delete(Visit visit);
 
+    @Transactional
+    void deleteAll(Iterable<Visit> visits);
+
     List<Visit> findByPetId(int petId);
 
+    /**
+     * Up to {@code count} visits of each pet, most recent first, in a single query.
+     */
+    @Query("""
+        SELECT new org.springframework.samples.petclinic.repository.VisitSummary(r.id, r.date, r.description, r.petId)
+        FROM (
+            SELECT v.id AS id, v.date AS date, v.description AS description, v.pet.id AS petId,
+                ROW_NUMBER() OVER (PARTITION BY v.pet.id ORDER BY v.date DESC, v.id DESC) AS position
+            FROM Visit v
+            WHERE v.pet.id IN :petIds
+        ) r
+        WHERE r.position <= :count
+        ORDER BY r.petId, r.position
+        """)
+    @ReadFromPrimary
+    List<VisitSummary> findRecentSummariesByPetIdIn(@Param("petIds") Collection<Integer> petIds, @Param("count") int count);
+
+    /**
+     * Visits dated up to {@code to} that come after the keyset ({@code afterDate}, {@code afterId}), ordered by
+     * date then id. The first page starts after (from, 0): ids are positive, so it includes the visits of {@code from}.
+     * <p>
+     * The keyset is compared as a row value, which PostgreSQL turns into a seek on the (visit_date, id) index; the
+     * equivalent {@code date > ? OR (date = ? AND id > ?)} would scan the index from its start on every page.
+     */
+    @Query("""
+        SELECT new org.springframework.samples.petclinic.repository.VisitSummary(v.id, v.date, v.description, v.pet.id)
+        FROM Visit v
+        WHERE (v.date, v.id) > (:afterDate, :afterId) AND v.date <= :to
+        ORDER BY v.date, v.id
+        """)
+    List<VisitSummary> findSummariesAfter(@Param("afterDate") LocalDate afterDate, @Param("afterId") int afterId,
+                                          @Param("to") LocalDate to, Limit limit);
+
+    @Query("""
+        SELECT new org.springframework.samples.petclinic.repository.VisitSummary(v.id, v.date, v.description, v.pet.id)
+        FROM Visit v
+        WHERE v.pet.id = :petId
+        AND (v.date, v.id) > (:afterDate, :afterId) AND v.date <= :to
+        ORDER BY v.date, v.id
+        """)
+    List<VisitSummary> findSummariesByPetIdAfter(@Param("petId") int petId, @Param("afterDate") LocalDate afterDate,
+                                                 @Param("afterId") int afterId, @Param("to") LocalDate to, Limit limit);
+
+    @Query("""
+        SELECT new org.springframework.samples.petclinic.repository.VisitSummary(v.id, v.date, v.description, v.pet.id)
+        FROM Visit v JOIN v.pet p
+        WHERE p.owner.id = :ownerId
+        AND (v.date, v.id) > (:afterDate, :afterId) AND v.date <= :to
+        ORDER BY v.date, v.id
+        """)
+    List<VisitSummary> findSummariesByOwnerIdAfter(@Param("ownerId") int ownerId, @Param("afterDate") LocalDate afterDate,
+                                                   @Param("afterId") int afterId, @Param("to") LocalDate to, Limit limit);
+
+    @Query("""
+        SELECT new org.springframework.samples.petclinic.repository.VisitSummary(v.id, v.date, v.description, v.pet.id)
+        FROM Visit v JOIN v.pet p
+        WHERE p.id = :petId AND p.owner.id = :ownerId
+        AND (v.date, v.id) > (:afterDate, :afterId) AND v.date <= :to
+        ORDER BY v.date, v.id
+        """)
+    List<VisitSummary> findSummariesByPetIdAndOwnerIdAfter(@Param("petId") int petId, @Param("ownerId") int ownerId,
+                                                           @Param("afterDate") LocalDate afterDate, @Param("afterId") int afterId,
+                                                           @Param("to") LocalDate to, Limit limit);
+
+
 }
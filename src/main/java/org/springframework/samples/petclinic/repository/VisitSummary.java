@@ -0,0 +1,14 @@
+package org.springframework.samples.petclinic.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a visit's own columns, with the pet's id read from the foreign key column
+ * rather than from a hydrated {@link org.springframework.samples.petclinic.model.Pet}.
+ */
+public record VisitSummary(
+    Integer id,
+    LocalDate date,
+    String description,
+    Integer petId) {
+}
@@ -0,0 +1,40 @@
+package org.springframework.samples.petclinic.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.rest.dto.TokenDto;
+import org.springframework.samples.petclinic.rest.dto.TokenRequestDto;
+import org.springframework.samples.petclinic.security.AuthTokenService;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Only present in token mode ({@code petclinic.security.mode=token}).
+ */
+@RestController
+@RequestMapping("/api/auth/token")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "petclinic.security.enable", havingValue = "true")
+@ConditionalOnProperty(name = "petclinic.security.mode", havingValue = "token")
+public class AuthTokenRestController {
+
+    private final AuthenticationManager authenticationManager;
+    private final AuthTokenService tokenService;
+
+    @PostMapping
+    @Operation(operationId = "issueToken", summary = "Exchange a username and password for a signed token")
+    public ResponseEntity<TokenDto> issueToken(@RequestBody @Validated TokenRequestDto request) {
+        Authentication authentication = authenticationManager.authenticate(
+            UsernamePasswordAuthenticationToken.unauthenticated(request.getUsername(), request.getPassword()));
+        AuthTokenService.IssuedToken issued = tokenService.issue(authentication);
+        return ResponseEntity.ok(new TokenDto().setToken(issued.token()).setExpiresAt(issued.expiresAt()));
+    }
+}
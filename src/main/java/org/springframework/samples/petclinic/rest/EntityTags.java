@@ -0,0 +1,42 @@
+package org.springframework.samples.petclinic.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Strong ETags computed from entity versions and {@link org.springframework.samples.petclinic.repository.VersionStamp}s.
+ * <p>
+ * The tag is an opaque hash, so neither ids nor row counts show in the header. Controllers compute it before
+ * loading the data they render: a write in between can only cause one more full response, never a stale 304.
+ */
+final class EntityTags {
+
+    private static final int TAG_BYTES = 16;
+
+    private EntityTags() {
+    }
+
+    static String of(Object... versions) {
+        byte[] hash = sha256(Arrays.deepToString(versions));
+        return '"' + HexFormat.of().formatHex(hash, 0, TAG_BYTES) + '"';
+    }
+
+    /**
+     * @param versionRows rows of ids and versions, as returned by the {@code find...VersionsById} queries
+     */
+    static String of(List<Object[]> versionRows) {
+        return of(versionRows.toArray());
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is a mandatory JCA algorithm", e);
+        }
+    }
+}
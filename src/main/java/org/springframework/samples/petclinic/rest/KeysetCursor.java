@@ -0,0 +1,63 @@
+package org.springframework.samples.petclinic.rest;
+
+import org.springframework.samples.petclinic.rest.error.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque continuation token for keyset (seek) pagination.
+ * <p>
+ * Carries the sort key of the last row of a page; it is base64url-encoded so that clients treat it as a black box
+ * and the server stays free to change the key layout.
+ */
+public record KeysetCursor(List<String> keys) {
+
+    // ASCII unit separator: cannot occur in any validated name or date column
+    private static final String SEPARATOR = "\u001F";
+
+    public static KeysetCursor of(Object... keys) {
+        return new KeysetCursor(Arrays.stream(keys).map(String::valueOf).toList());
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new KeysetCursor(List.of(raw.split(SEPARATOR, -1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(token, e);
+        }
+    }
+
+    public String encode() {
+        byte[] raw = String.join(SEPARATOR, keys).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public String key(int index) {
+        if (index >= keys.size()) {
+            throw new InvalidCursorException(encode(), null);
+        }
+        return keys.get(index);
+    }
+
+    public int intKey(int index) {
+        try {
+            return Integer.parseInt(key(index));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(encode(), e);
+        }
+    }
+
+    public LocalDate dateKey(int index) {
+        try {
+            return LocalDate.parse(key(index));
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException(encode(), e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.springframework.samples.petclinic.rest;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code visits=latest:N} request parameter: render a pet with its N most recent visits only.
+ * <p>
+ * Bound by Spring's conversion service through {@link #valueOf(String)}; anything else, or more than
+ * {@value #MAX_COUNT} visits, is rejected as a bad request.
+ */
+public record LatestVisits(int count) {
+
+    public static final int MAX_COUNT = 100;
+    private static final Pattern FORMAT = Pattern.compile("latest:(\\d{1,3})");
+
+    public LatestVisits {
+        if (count < 1) {
+            throw new IllegalArgumentException("The number of latest visits must be at least 1");
+        }
+        if (count > MAX_COUNT) {
+            throw new IllegalArgumentException("The number of latest visits must be at most " + MAX_COUNT);
+        }
+    }
+
+    public static LatestVisits valueOf(String value) {
+        Matcher matcher = FORMAT.matcher(value);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Expected visits=latest:N, got " + value);
+        }
+        return new LatestVisits(Integer.parseInt(matcher.group(1)));
+    }
+}
@@ -0,0 +1,248 @@
+package org.springframework.samples.petclinic.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.samples.petclinic.mapper.OwnerMapper;
+import org.springframework.samples.petclinic.mapper.PetMapper;
+import org.springframework.samples.petclinic.mapper.VisitMapper;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.repository.OwnerCursorRepository;
+import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.repository.PetTypeRepository;
+import org.springframework.samples.petclinic.rest.dto.OwnerImportDto;
+import org.springframework.samples.petclinic.rest.dto.OwnerImportProgressDto;
+import org.springframework.samples.petclinic.rest.dto.PetImportDto;
+import org.springframework.samples.petclinic.rest.dto.VisitFieldsDto;
+import org.springframework.samples.petclinic.rest.error.ValidationErrorExtractor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import and export of the owner → pet → visit aggregate, as NDJSON or CSV, without holding
+ * the whole data set in memory at any point. Listed with the other owner endpoints in the API documentation.
+ */
+@Slf4j
+@Tag(name = "owner-rest-controller")
+@RestController
+@RequestMapping("/api/owners")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole(@roles.OWNER_ADMIN)")
+public class OwnerBulkRestController {
+    /**
+     * Owners are read in chunks: the valid ones of a chunk are written in their own transaction, then a progress
+     * line with the chunk's rejections is sent, however many owners of the chunk were accepted.
+     * Within a chunk Hibernate sends the owner, pet and visit inserts in JDBC batches of hibernate.jdbc.batch_size.
+     */
+    private static final int IMPORT_CHUNK_SIZE = 200;
+
+    private final OwnerRepository ownerRepository;
+    private final OwnerCursorRepository ownerCursorRepository;
+    private final PetTypeRepository petTypeRepository;
+    private final OwnerMapper ownerMapper;
+    private final PetMapper petMapper;
+    private final VisitMapper visitMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Owners read one at a time from the request body, as JSON trees shaped like {@link OwnerImportDto}.
+     */
+    interface OwnerReader extends Closeable {
+
+        /**
+         * @return the next owner, or null at the end of the input
+         * @throws JsonProcessingException if the input is malformed and cannot be read any further
+         */
+        @Nullable
+        JsonNode next() throws IOException;
+    }
+
+    @Operation(operationId = "exportOwnersCsv", summary = "Stream all owners with their pets and visits as CSV",
+        description = "One row per visit, owners without pets and pets without visits get a row of their own. "
+            + "The output can be imported again through POST /api/owners/import.")
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(mediaType = OwnerCsv.MEDIA_TYPE, schema = @Schema(type = "string")))
+    @GetMapping(produces = OwnerCsv.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportOwnersCsv() {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter rows = OwnerCsv.writer(out)) {
+                ownerCursorRepository.forEachOwner(owner -> OwnerCsv.write(owner, rows));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(OwnerCsv.MEDIA_TYPE)).body(body);
+    }
+
+    @Operation(operationId = "importOwners", summary = "Create many owners with their pets and visits",
+        description = "Accepts a JSON array, a newline-delimited JSON stream or CSV, such as produced by the NDJSON and CSV "
+            + "exports of GET /api/owners. The input is read one owner at a time; every owner is validated with its pets "
+            + "and visits and stored with them, or rejected as a whole. Pet types are matched by name. "
+            + "The response is a stream of progress lines, one per chunk of owners read, the last one marked done.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = OwnerImportDto.class))),
+            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = OwnerImportDto.class)),
+            @Content(mediaType = OwnerCsv.MEDIA_TYPE, schema = @Schema(type = "string"))}))
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = OwnerImportProgressDto.class)))
+    @PostMapping(path = "import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, OwnerCsv.MEDIA_TYPE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importOwners(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Map<String, PetType> petTypes = petTypeRepository.findAll().stream()
+            .collect(Collectors.toMap(type -> type.getName().toLowerCase(Locale.ROOT), Function.identity(), (a, b) -> a));
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        OwnerImportProgressDto progress = new OwnerImportProgressDto();
+        List<Owner> pendingOwners = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        try (OwnerReader owners = reader(request)) {
+            while (true) {
+                JsonNode ownerNode;
+                try {
+                    ownerNode = owners.next();
+                } catch (JsonProcessingException e) {
+                    // the rest of the input cannot be read reliably
+                    progress.getRejected().add(rejection(progress.getOwnersRead(), List.of("Malformed input: " + e.getOriginalMessage())));
+                    break;
+                }
+                if (ownerNode == null) {
+                    break;
+                }
+                int index = progress.getOwnersRead();
+                progress.setOwnersRead(index + 1);
+                List<String> errors = new ArrayList<>();
+                Owner owner = toOwner(ownerNode, petTypes, errors);
+                if (owner == null) {
+                    progress.getRejected().add(rejection(index, errors));
+                } else {
+                    pendingOwners.add(owner);
+                }
+                if (progress.getOwnersRead() % IMPORT_CHUNK_SIZE == 0) {
+                    saveChunk(pendingOwners, progress);
+                    writeLine(out, progress);
+                }
+            }
+        }
+        saveChunk(pendingOwners, progress);
+        progress.setDone(true);
+        writeLine(out, progress);
+        log.info("Owner import done: {} read, {} owners, {} pets and {} visits created", progress.getOwnersRead(),
+            progress.getOwnersCreated(), progress.getPetsCreated(), progress.getVisitsCreated());
+    }
+
+    private OwnerReader reader(HttpServletRequest request) throws IOException {
+        if (MediaType.parseMediaType(OwnerCsv.MEDIA_TYPE).isCompatibleWith(MediaType.parseMediaType(request.getContentType()))) {
+            return OwnerCsv.reader(request.getInputStream());
+        }
+        // a top-level array is unwrapped, so arrays and NDJSON are read the same way, one owner at a time
+        MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(request.getInputStream());
+        return new OwnerReader() {
+            @Override
+            public JsonNode next() throws IOException {
+                return items.hasNextValue() ? items.nextValue() : null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                items.close();
+            }
+        };
+    }
+
+    /**
+     * @return the owner with its pets and visits, or null with the reasons added to {@code errors}
+     */
+    @Nullable
+    private Owner toOwner(JsonNode ownerNode, Map<String, PetType> petTypes, List<String> errors) {
+        OwnerImportDto ownerDto;
+        try {
+            ownerDto = objectMapper.treeToValue(ownerNode, OwnerImportDto.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            errors.add("Unreadable owner: " + (e instanceof JsonProcessingException j ? j.getOriginalMessage() : e.getMessage()));
+            return null;
+        }
+        Set<ConstraintViolation<OwnerImportDto>> violations = validator.validate(ownerDto);
+        if (!violations.isEmpty()) {
+            errors.addAll(ValidationErrorExtractor.extract(new ConstraintViolationException(violations)));
+            return null;
+        }
+        Owner owner = ownerMapper.toOwner(ownerDto);
+        for (PetImportDto petDto : ownerDto.getPets()) {
+            PetType type = petTypes.get(petDto.getType().getName().toLowerCase(Locale.ROOT));
+            if (type == null) {
+                errors.add("Unknown pet type: " + petDto.getType().getName());
+                continue;
+            }
+            Pet pet = petMapper.toPet(petDto).setType(type);
+            for (VisitFieldsDto visitDto : petDto.getVisits()) {
+                pet.addVisit(visitMapper.toVisit(visitDto));
+            }
+            owner.addPet(pet);
+        }
+        return errors.isEmpty() ? owner : null;
+    }
+
+    private void saveChunk(List<Owner> owners, OwnerImportProgressDto progress) {
+        if (owners.isEmpty()) {
+            return;
+        }
+        ownerRepository.saveAll(owners);
+        int pets = 0;
+        int visits = 0;
+        for (Owner owner : owners) {
+            pets += owner.getPets().size();
+            visits += owner.getPets().stream().mapToInt(pet -> pet.getVisits().size()).sum();
+        }
+        progress.setOwnersCreated(progress.getOwnersCreated() + owners.size())
+            .setPetsCreated(progress.getPetsCreated() + pets)
+            .setVisitsCreated(progress.getVisitsCreated() + visits);
+        owners.clear();
+    }
+
+    /**
+     * Sends the progress right away and starts collecting the rejections of the next chunk.
+     */
+    private void writeLine(OutputStream out, OwnerImportProgressDto progress) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(progress));
+        out.write('\n');
+        out.flush();
+        progress.getRejected().clear();
+    }
+
+    private static OwnerImportProgressDto.Rejection rejection(int index, List<String> errors) {
+        return new OwnerImportProgressDto.Rejection().setIndex(index).setErrors(errors);
+    }
+}
@@ -0,0 +1,185 @@
+package org.springframework.samples.petclinic.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.lang.Nullable;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The owner → pet → visit aggregate as flat CSV: one row per visit, with the owner and pet columns repeated.
+ * Owners without pets and pets without visits get a single row with the missing columns left empty.
+ * <p>
+ * Rows of the same owner (same {@code ownerId}) must be consecutive, and so must rows of the same pet.
+ * The ids only group rows together: imported owners, pets and visits get new ids.
+ */
+final class OwnerCsv {
+
+    static final String MEDIA_TYPE = "text/csv";
+
+    private static final String OWNER_ID = "ownerId";
+    private static final String FIRST_NAME = "firstName";
+    private static final String LAST_NAME = "lastName";
+    private static final String ADDRESS = "address";
+    private static final String CITY = "city";
+    private static final String TELEPHONE = "telephone";
+    private static final String PET_ID = "petId";
+    private static final String PET_NAME = "petName";
+    private static final String BIRTH_DATE = "birthDate";
+    private static final String TYPE_ID = "typeId";
+    private static final String TYPE_NAME = "typeName";
+    private static final String VISIT_ID = "visitId";
+    private static final String VISIT_DATE = "visitDate";
+    private static final String DESCRIPTION = "description";
+
+    private static final CsvSchema SCHEMA = CsvSchema.builder()
+        .addColumns(List.of(OWNER_ID, FIRST_NAME, LAST_NAME, ADDRESS, CITY, TELEPHONE,
+            PET_ID, PET_NAME, BIRTH_DATE, TYPE_ID, TYPE_NAME, VISIT_ID, VISIT_DATE, DESCRIPTION), CsvSchema.ColumnType.STRING)
+        .setUseHeader(true)
+        .build();
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private OwnerCsv() {
+    }
+
+    /**
+     * Writes the header right away; the output stream is left open when the writer is closed.
+     */
+    static SequenceWriter writer(OutputStream out) throws IOException {
+        return CSV_MAPPER.writer(SCHEMA).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(out);
+    }
+
+    static void write(Owner owner, SequenceWriter rows) {
+        try {
+            if (owner.getPets().isEmpty()) {
+                rows.write(row(owner, null, null));
+            }
+            for (Pet pet : owner.getPets()) {
+                if (pet.getVisits().isEmpty()) {
+                    rows.write(row(owner, pet, null));
+                }
+                for (Visit visit : pet.getVisits()) {
+                    rows.write(row(owner, pet, visit));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object[] row(Owner owner, @Nullable Pet pet, @Nullable Visit visit) {
+        Object[] row = {owner.getId(), owner.getFirstName(), owner.getLastName(), owner.getAddress(), owner.getCity(),
+            owner.getTelephone(), null, null, null, null, null, null, null, null};
+        if (pet != null) {
+            row[6] = pet.getId();
+            row[7] = pet.getName();
+            row[8] = Objects.toString(pet.getBirthDate(), null);
+            row[9] = pet.getType().getId();
+            row[10] = pet.getType().getName();
+        }
+        if (visit != null) {
+            row[11] = visit.getId();
+            row[12] = Objects.toString(visit.getDate(), null);
+            row[13] = visit.getDescription();
+        }
+        return row;
+    }
+
+    /**
+     * Reads the rows one at a time and regroups them into owner trees shaped like {@code OwnerImportDto}.
+     * The columns are found through the header line, so their order does not matter.
+     */
+    static OwnerBulkRestController.OwnerReader reader(InputStream in) throws IOException {
+        MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class)
+            .with(CsvSchema.emptySchema().withHeader())
+            .readValues(in);
+        return new OwnerReader(rows);
+    }
+
+    private static final class OwnerReader implements OwnerBulkRestController.OwnerReader {
+
+        private final MappingIterator<Map<String, String>> rows;
+        private @Nullable Map<String, String> next;
+
+        private OwnerReader(MappingIterator<Map<String, String>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public @Nullable JsonNode next() throws IOException {
+            if (next == null && rows.hasNextValue()) {
+                next = rows.nextValue();
+            }
+            if (next == null) {
+                return null;
+            }
+            String ownerId = value(next, OWNER_ID);
+            ObjectNode owner = JsonNodeFactory.instance.objectNode()
+                .put(FIRST_NAME, value(next, FIRST_NAME))
+                .put(LAST_NAME, value(next, LAST_NAME))
+                .put(ADDRESS, value(next, ADDRESS))
+                .put(CITY, value(next, CITY))
+                .put(TELEPHONE, value(next, TELEPHONE));
+            ArrayNode pets = owner.putArray("pets");
+            ObjectNode pet = null;
+            String petId = null;
+            do {
+                Map<String, String> row = next;
+                next = null;
+                boolean hasPet = value(row, PET_ID) != null || value(row, PET_NAME) != null;
+                boolean hasVisit = value(row, VISIT_DATE) != null || value(row, DESCRIPTION) != null;
+                if (hasPet || hasVisit) {
+                    if (pet == null || petId == null || !petId.equals(value(row, PET_ID))) {
+                        petId = value(row, PET_ID);
+                        pet = pets.addObject()
+                            .put("name", value(row, PET_NAME))
+                            .put(BIRTH_DATE, value(row, BIRTH_DATE));
+                        pet.putObject("type")
+                            .put("id", value(row, TYPE_ID))
+                            .put("name", value(row, TYPE_NAME));
+                        pet.putArray("visits");
+                    }
+                    if (hasVisit) {
+                        ((ArrayNode) pet.get("visits")).addObject()
+                            .put("date", value(row, VISIT_DATE))
+                            .put(DESCRIPTION, value(row, DESCRIPTION));
+                    }
+                }
+                if (rows.hasNextValue()) {
+                    next = rows.nextValue();
+                }
+            } while (next != null && ownerId != null && ownerId.equals(value(next, OWNER_ID)));
+            return owner;
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+
+        /**
+         * Empty cells are missing values.
+         */
+        private static @Nullable String value(Map<String, String> row, String column) {
+            String value = row.get(column);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package org.springframework.samples.petclinic.rest;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.mapper.OwnerMapper;
 import org.springframework.samples.petclinic.mapper.PetMapper;
@@ -11,22 +15,32 @@ import org.springframework.samples.petclinic.model.Owner;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.model.Visit;
 import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.repository.OwnerSummary;
 import org.springframework.samples.petclinic.repository.PetRepository;
 import org.springframework.samples.petclinic.repository.PetTypeRepository;
+import org.springframework.samples.petclinic.repository.ReactiveOwnerRepository;
+import org.springframework.samples.petclinic.repository.RecentVisitsCache;
 import org.springframework.samples.petclinic.repository.VisitRepository;
+import org.springframework.samples.petclinic.repository.VisitSummary;
 import org.springframework.samples.petclinic.rest.dto.OwnerDto;
 import org.springframework.samples.petclinic.rest.dto.OwnerFieldsDto;
+import org.springframework.samples.petclinic.rest.dto.OwnerSummaryDto;
 import org.springframework.samples.petclinic.rest.dto.PetDto;
 import org.springframework.samples.petclinic.rest.dto.PetFieldsDto;
 import org.springframework.samples.petclinic.rest.dto.VisitFieldsDto;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/owners")
@@ -34,7 +48,12 @@ import java.util.List;
 @PreAuthorize("hasRole(@roles.OWNER_ADMIN)")
 public class OwnerRestController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SUMMARY_LIMIT = 20;
+
     private final OwnerRepository ownerRepository;
+    private final ReactiveOwnerRepository reactiveOwnerRepository;
     private final PetRepository petRepository;
     private final VisitRepository visitRepository;
     private final PetTypeRepository petTypeRepository;
@@ -45,23 +64,93 @@ public class OwnerRestController {
 
     private final VisitMapper visitMapper;
 
+    private final RecentVisitsCache recentVisitsCache;
+
     @Operation(operationId = "listOwners", summary = "List owners")
     @GetMapping(produces = "application/json")
     public List<OwnerDto> listOwners(@RequestParam(name = "lastName", required = false) String lastName) {
         List<Owner> owners;
         if (lastName != null) {
-            owners = ownerRepository.findByLastNameIgnoreCaseStartingWith(lastName);
+            owners = ownerRepository.findByLastNameLowerStartingWith(lastName.toLowerCase(Locale.ROOT));
         } else {
             owners = ownerRepository.findAll();
         }
         return ownerMapper.toOwnerDtoCollection(owners);
     }
 
+    @Operation(operationId = "listOwnerSummaries", summary = "Search owners without their pets and visits",
+        description = "Lightweight type-ahead search: owner columns plus the number of pets, read by a single "
+            + "projection query. Returns at most 'limit' owners, " + DEFAULT_SUMMARY_LIMIT + " by default and "
+            + MAX_PAGE_SIZE + " at most.")
+    @GetMapping(params = "view=summary", produces = "application/json")
+    public List<OwnerSummaryDto> listOwnerSummaries(@RequestParam(name = "lastName", defaultValue = "") String lastName,
+                                                    @RequestParam(name = "limit", defaultValue = "" + DEFAULT_SUMMARY_LIMIT) int limit) {
+        Limit maxResults = Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        List<OwnerSummary> summaries = ownerRepository.findSummariesByLastNameStartingWith(
+            lastName.toLowerCase(Locale.ROOT), maxResults);
+        return ownerMapper.toOwnerSummaryDtos(summaries);
+    }
+
+    @Operation(operationId = "listOwnersPage", summary = "List owners one page at a time, ordered by last name",
+        description = "Keyset pagination: pass the " + NEXT_CURSOR_HEADER + " response header back as 'cursor' "
+            + "to get the next page. The header is absent on the last page.")
+    @GetMapping(params = "size", produces = "application/json")
+    public ResponseEntity<List<OwnerDto>> listOwnersPage(@RequestParam(name = "size") int size,
+                                                         @RequestParam(name = "cursor", required = false) String cursor) {
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        List<Integer> ownerIds;
+        if (cursor == null) {
+            ownerIds = ownerRepository.findFirstPageIds(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            ownerIds = ownerRepository.findPageIdsAfter(after.key(0), after.intKey(1), limit);
+        }
+        List<Owner> owners = ownerRepository.findByIdInOrderByLastNameAscIdAsc(ownerIds);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (owners.size() == limit.max()) {
+            Owner last = owners.get(owners.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, KeysetCursor.of(last.getLastName(), last.getId()).encode());
+        }
+        return response.body(ownerMapper.toOwnerDtoCollection(owners));
+    }
+
+    @Operation(operationId = "streamOwners", summary = "Stream all owners as newline-delimited JSON, ordered by ID",
+        description = "With 'lastName', only the owners whose last name starts with it, ignoring case.")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OwnerDto> streamOwners(@RequestParam(name = "lastName", required = false) String lastName) {
+        return reactiveOwnerRepository.findAll(lastName).map(ownerMapper::toOwnerDto);
+    }
+
     @Operation(operationId = "getOwner", summary = "Get an owner by ID")
     @GetMapping("/{ownerId}")
-    public OwnerDto getOwner(@PathVariable int ownerId) {
-        Owner owner = ownerRepository.findById(ownerId).orElseThrow();
-        return ownerMapper.toOwnerDto(owner);
+    public OwnerDto getOwner(@PathVariable int ownerId,
+                             @Parameter(description = "Only the given number of most recent visits per pet, as latest:N",
+                                 schema = @Schema(type = "string", example = "latest:3"))
+                             @RequestParam(name = "visits", required = false) LatestVisits visits,
+                             WebRequest request) {
+        if (request.checkNotModified(ownerTag(ownerId))) {
+            return null;
+        }
+        if (visits == null) {
+            Owner owner = ownerRepository.findAggregateById(ownerId).orElseThrow();
+            return ownerMapper.toOwnerDto(owner);
+        }
+        OwnerDto owner = ownerMapper.toOwnerDtoWithoutVisits(ownerRepository.findWithPetsById(ownerId).orElseThrow());
+        Map<Integer, List<VisitSummary>> latest = recentVisitsCache.latest(
+            owner.getPets().stream().map(PetDto::getId).toList(), visits.count());
+        owner.getPets().forEach(pet -> pet.setVisits(visitMapper.toVisitDtos(latest.get(pet.getId()))));
+        return owner;
+    }
+
+    /**
+     * Covers everything rendered with the owner: its pets, their types and their visits.
+     */
+    private String ownerTag(int ownerId) {
+        List<Object[]> versions = ownerRepository.findAggregateVersionsById(ownerId);
+        if (versions.isEmpty()) {
+            throw new NoSuchElementException("Owner " + ownerId + " not found");
+        }
+        return EntityTags.of(versions);
     }
 
     @Operation(operationId = "addOwner", summary = "Create an owner")
@@ -76,21 +165,32 @@ public class OwnerRestController {
 
     @Operation(operationId = "updateOwner", summary = "Update an owner")
     @PutMapping("/{ownerId}")
-    public void updateOwner(@PathVariable int ownerId, @RequestBody @Validated OwnerFieldsDto ownerFieldsDto) {
+    @Transactional
+    public void updateOwner(@PathVariable int ownerId, @RequestBody @Validated OwnerFieldsDto ownerFieldsDto,
+                            WebRequest request) {
+        // loaded before the tag is checked: a write committed in between fails the version check on flush (409),
+        // instead of being overwritten
         Owner currentOwner = ownerRepository.findById(ownerId).orElseThrow();
+        if (request.checkNotModified(ownerTag(ownerId))) {
+            // If-Match names an outdated version: 412 Precondition Failed
+            return;
+        }
         currentOwner.setAddress(ownerFieldsDto.getAddress());
         currentOwner.setCity(ownerFieldsDto.getCity());
         currentOwner.setFirstName(ownerFieldsDto.getFirstName());
         currentOwner.setLastName(ownerFieldsDto.getLastName());
         currentOwner.setTelephone(ownerFieldsDto.getTelephone());
-        ownerRepository.save(currentOwner);
     }
 
     @Operation(operationId = "deleteOwner", summary = "Delete an owner by ID")
     @DeleteMapping("/{ownerId}")
+    @Transactional
     public void deleteOwner(@PathVariable int ownerId) {
         Owner owner = ownerRepository.findById(ownerId).orElseThrow();
+        // all visits first: cascading from each pet in turn would alternate visit and pet deletes, defeating JDBC batching
+        owner.getPets().forEach(pet -> visitRepository.deleteAll(pet.getVisits()));
         ownerRepository.delete(owner);
+        recentVisitsCache.visitsChanged(owner.getPets().stream().map(Pet::getId).toList());
     }
 
     @Operation(operationId = "addPetToOwner", summary = "Add a pet to an owner")
@@ -125,6 +225,7 @@ public class OwnerRestController {
         pet.setId(petId);
         visit.setPet(pet);
         visitRepository.save(visit);
+        recentVisitsCache.visitAdded(visit);
 
         URI createdUri = UriComponentsBuilder.fromPath("/api/pets/{petId}/visits/{id}")
             .buildAndExpand(petId, visit.getId()).toUri();
@@ -133,9 +234,15 @@ public class OwnerRestController {
 
     @Operation(operationId = "getOwnersPet", summary = "Get a pet belonging to an owner")
     @GetMapping("{ownerId}/pets/{petId}")
-    public PetDto getOwnersPet(@PathVariable int ownerId, @PathVariable int petId) {
-        Owner owner = ownerRepository.findById(ownerId).orElseThrow();
-        Pet pet = owner.getPetById(petId).orElseThrow();
-        return petMapper.toPetDto(pet);
+    public PetDto getOwnersPet(@PathVariable int ownerId, @PathVariable int petId,
+                               @Parameter(description = "Only the given number of most recent visits, as latest:N",
+                                   schema = @Schema(type = "string", example = "latest:3"))
+                               @RequestParam(name = "visits", required = false) LatestVisits visits) {
+        if (visits == null) {
+            Pet pet = petRepository.findByIdAndOwnerId(petId, ownerId).orElseThrow();
+            return petMapper.toPetDto(pet);
+        }
+        PetDto pet = petMapper.toPetDtoWithoutVisits(petRepository.findWithTypeByIdAndOwnerId(petId, ownerId).orElseThrow());
+        return pet.setVisits(visitMapper.toVisitDtos(recentVisitsCache.latest(petId, visits.count())));
     }
 }
@@ -1,17 +1,23 @@
 package org.springframework.samples.petclinic.rest;
 
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.samples.petclinic.mapper.PetMapper;
+import org.springframework.samples.petclinic.mapper.VisitMapper;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.repository.PetRepository;
 import org.springframework.samples.petclinic.repository.PetTypeRepository;
+import org.springframework.samples.petclinic.repository.RecentVisitsCache;
 import org.springframework.samples.petclinic.rest.dto.PetDto;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/pets")
@@ -21,10 +27,23 @@ public class PetRestController {
 
     private final PetRepository petRepository;
     private final PetMapper petMapper;
+    private final VisitMapper visitMapper;
+    private final RecentVisitsCache recentVisitsCache;
 
     @GetMapping("/{petId}")
-    public PetDto getPet(@PathVariable int petId) {
-        return petMapper.toPetDto(petRepository.findById(petId).orElseThrow());
+    public PetDto getPet(@PathVariable int petId,
+                         @Parameter(description = "Only the given number of most recent visits, as latest:N",
+                             schema = @Schema(type = "string", example = "latest:3"))
+                         @RequestParam(name = "visits", required = false) LatestVisits visits,
+                         WebRequest request) {
+        if (request.checkNotModified(petTag(petId))) {
+            return null;
+        }
+        if (visits == null) {
+            return petMapper.toPetDto(petRepository.findById(petId).orElseThrow());
+        }
+        PetDto pet = petMapper.toPetDtoWithoutVisits(petRepository.findWithTypeById(petId).orElseThrow());
+        return pet.setVisits(visitMapper.toVisitDtos(recentVisitsCache.latest(petId, visits.count())));
     }
 
     @GetMapping(produces = "application/json")
@@ -35,18 +54,34 @@ public class PetRestController {
 
     @PutMapping("/{petId}")
     @Transactional
-    public void updatePet(@PathVariable int petId, @Validated @RequestBody PetDto petDto) {
+    public void updatePet(@PathVariable int petId, @Validated @RequestBody PetDto petDto, WebRequest request) {
+        // loaded before the tag is checked: a write committed in between fails the version check on flush (409),
+        // instead of being overwritten
         Pet currentPet = petRepository.findById(petId).orElseThrow();
+        if (request.checkNotModified(petTag(petId))) {
+            // If-Match names an outdated version: 412 Precondition Failed
+            return;
+        }
         currentPet
             .setBirthDate(petDto.getBirthDate())
             .setName(petDto.getName())
             .setType(petMapper.toPetType(petDto.getType()));
     }
 
+    private String petTag(int petId) {
+        List<Object[]> versions = petRepository.findAggregateVersionsById(petId);
+        if (versions.isEmpty()) {
+            throw new NoSuchElementException("Pet " + petId + " not found");
+        }
+        return EntityTags.of(versions);
+    }
+
     @DeleteMapping("/{petId}")
+    @Transactional
     public void deletePet(@PathVariable int petId) {
         Pet pet = petRepository.findById(petId).orElseThrow();
         petRepository.delete(pet);
+        recentVisitsCache.visitsChanged(List.of(petId));
     }
 
 }
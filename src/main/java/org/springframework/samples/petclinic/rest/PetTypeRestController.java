@@ -1,7 +1,12 @@
 package org.springframework.samples.petclinic.rest;
 
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.mapper.PetTypeMapper;
 import org.springframework.samples.petclinic.model.PetType;
@@ -10,6 +15,7 @@ import org.springframework.samples.petclinic.rest.dto.PetTypeDto;
 import org.springframework.samples.petclinic.rest.dto.PetTypeFieldsDto;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -25,16 +31,23 @@ public class PetTypeRestController {
 
     private final PetTypeMapper petTypeMapper;
     private final PetTypeRepository petTypeRepository;
+    private final SerializedResponseCache responseCache;
 
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = PetTypeDto.class))))
     @GetMapping(produces = "application/json")
-    public List<PetTypeDto> listPetTypes() {
-        List<PetType> petTypes = new ArrayList<>(petTypeRepository.findAll());
-        return petTypeMapper.toPetTypeDtos(petTypes);
+    public ResponseEntity<byte[]> listPetTypes(WebRequest request) {
+        String etag = EntityTags.of(petTypeRepository.findVersionStamp());
+        return responseCache.respond("/api/pettypes", etag, request,
+            () -> petTypeMapper.toPetTypeDtos(new ArrayList<>(petTypeRepository.findAll())));
     }
 
     @GetMapping("/{petTypeId}")
-    public PetTypeDto getPetType(@PathVariable int petTypeId) {
+    public PetTypeDto getPetType(@PathVariable int petTypeId, WebRequest request) {
         PetType petType = petTypeRepository.findById(petTypeId).orElseThrow();
+        if (request.checkNotModified(EntityTags.of(petType.getVersion()))) {
+            return null;
+        }
         return petTypeMapper.toPetTypeDto(petType);
     }
 
@@ -51,8 +64,12 @@ public class PetTypeRestController {
     @PreAuthorize("hasRole(@roles.VET_ADMIN)")
     @PutMapping("/{petTypeId}")
     public void updatePetType(@PathVariable int petTypeId,
-                              @RequestBody @Validated PetTypeDto petTypeDto) {
+                              @RequestBody @Validated PetTypeDto petTypeDto, WebRequest request) {
         PetType currentPetType = petTypeRepository.findById(petTypeId).orElseThrow();
+        if (request.checkNotModified(EntityTags.of(currentPetType.getVersion()))) {
+            // If-Match names an outdated version: 412 Precondition Failed
+            return;
+        }
         currentPetType.setName(petTypeDto.getName());
         petTypeRepository.save(currentPetType);
     }
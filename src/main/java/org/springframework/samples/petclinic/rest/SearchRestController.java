@@ -0,0 +1,37 @@
+package org.springframework.samples.petclinic.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.samples.petclinic.mapper.SearchHitMapper;
+import org.springframework.samples.petclinic.rest.dto.SearchHitDto;
+import org.springframework.samples.petclinic.search.SearchIndex;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole(@roles.OWNER_ADMIN)")
+public class SearchRestController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchIndex searchIndex;
+    private final SearchHitMapper searchHitMapper;
+
+    @Operation(operationId = "search", summary = "Find owners, pets and visits",
+        description = "Matches owner names, city and telephone, pet names and visit descriptions. Every word of 'q' "
+            + "must match a word exactly, as its beginning or with a typo. Served from an in-memory index that "
+            + "follows committed changes.")
+    @GetMapping(produces = "application/json")
+    public List<SearchHitDto> search(@RequestParam(name = "q") String query,
+                                     @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        List<SearchIndex.Hit> hits = searchIndex.search(query, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return searchHitMapper.toSearchHitDtos(hits);
+    }
+}
@@ -0,0 +1,119 @@
+package org.springframework.samples.petclinic.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reference-data responses kept as serialized JSON, plain and gzip-compressed, and written out as they are.
+ * <p>
+ * Every entry is stored under the ETag of the data it was rendered from. Writes change that tag, whichever endpoint
+ * or cascade they come from, so a stale entry is never served: it is replaced by the first request that sees the
+ * new tag. Only the latest rendering of each resource is kept.
+ * <p>
+ * The gzip variant is a different representation and gets a strong tag of its own, the data tag with
+ * {@value #GZIP_TAG_SUFFIX} appended inside the quotes; conditional requests are checked against the tag of the
+ * variant the client would be sent.
+ */
+@Component
+public class SerializedResponseCache {
+
+    private static final String GZIP = "gzip";
+    static final String GZIP_TAG_SUFFIX = "-gz";
+
+    private record Rendering(String etag, byte[] json, byte[] gzip) {
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Rendering> renderings = new ConcurrentHashMap<>();
+
+    public SerializedResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param resource names the cached response, e.g. its path
+     * @param etag     tag of the data the body is rendered from, computed before loading it
+     * @param body     loads and maps the data; only called when the cached rendering is missing or outdated
+     * @return {@code null} if the client's copy is still current, for the 304 set up on the request
+     */
+    public ResponseEntity<byte[]> respond(String resource, String etag, WebRequest request, Supplier<?> body) {
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String variantTag = gzip ? gzipTag(etag) : etag;
+        if (request.checkNotModified(variantTag)) {
+            return null;
+        }
+        Rendering rendering = renderings.get(resource);
+        if (rendering == null || !rendering.etag().equals(etag)) {
+            rendering = render(etag, body.get());
+            renderings.put(resource, rendering);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(variantTag)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(rendering.gzip());
+        }
+        return response.body(rendering.json());
+    }
+
+    public void clear() {
+        renderings.clear();
+    }
+
+    private Rendering render(String etag, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new Rendering(etag, json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + body.getClass().getName(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String gzipTag(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_TAG_SUFFIX + '"';
+    }
+
+    /**
+     * True if the Accept-Encoding header lists gzip (or *) without refusing it through {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+                for (int i = 1; i < parameters.length; i++) {
+                    String parameter = parameters[i].trim().replace(" ", "");
+                    if (parameter.matches("q=0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,11 @@
 package org.springframework.samples.petclinic.rest;
 
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.mapper.SpecialtyMapper;
 import org.springframework.samples.petclinic.model.Specialty;
@@ -9,6 +14,7 @@ import org.springframework.samples.petclinic.rest.dto.SpecialtyDto;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -21,16 +27,23 @@ import java.util.List;
 public class SpecialtyRestController {
     private final SpecialtyRepository specialtyRepository;
     private final SpecialtyMapper specialtyMapper;
+    private final SerializedResponseCache responseCache;
 
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = SpecialtyDto.class))))
     @GetMapping("/specialties")
-    public List<SpecialtyDto> listSpecialties() {
-        List<Specialty> allSpecialties = specialtyRepository.findAll();
-        return specialtyMapper.toSpecialtyDtos(allSpecialties);
+    public ResponseEntity<byte[]> listSpecialties(WebRequest request) {
+        String etag = EntityTags.of(specialtyRepository.findVersionStamp());
+        return responseCache.respond("/api/specialties", etag, request,
+            () -> specialtyMapper.toSpecialtyDtos(specialtyRepository.findAll()));
     }
 
     @GetMapping("/specialties/{specialtyId}")
-    public SpecialtyDto getSpecialty(@PathVariable int specialtyId) {
+    public SpecialtyDto getSpecialty(@PathVariable int specialtyId, WebRequest request) {
         Specialty specialty = specialtyRepository.findById(specialtyId).orElseThrow();
+        if (request.checkNotModified(EntityTags.of(specialty.getVersion()))) {
+            return null;
+        }
         return specialtyMapper.toSpecialtyDto(specialty);
     }
 
@@ -44,8 +57,13 @@ public class SpecialtyRestController {
     }
 
     @PutMapping("/specialties/{specialtyId}")
-    public void updateSpecialty(@PathVariable int specialtyId, @RequestBody @Validated SpecialtyDto specialtyDto) {
+    public void updateSpecialty(@PathVariable int specialtyId, @RequestBody @Validated SpecialtyDto specialtyDto,
+                                WebRequest request) {
         Specialty currentSpecialty = specialtyRepository.findById(specialtyId).orElseThrow();
+        if (request.checkNotModified(EntityTags.of(currentSpecialty.getVersion()))) {
+            // If-Match names an outdated version: 412 Precondition Failed
+            return;
+        }
         currentSpecialty.setName(specialtyDto.getName());
         specialtyRepository.save(currentSpecialty);
     }
@@ -3,12 +3,14 @@ package org.springframework.samples.petclinic.rest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.mapper.UserMapper;
 import org.springframework.samples.petclinic.model.Role;
 import org.springframework.samples.petclinic.model.User;
 import org.springframework.samples.petclinic.repository.UserRepository;
 import org.springframework.samples.petclinic.rest.dto.UserDto;
+import org.springframework.samples.petclinic.security.UserCredentialsChangedEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -23,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserRestController {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostMapping
     @Transactional
@@ -44,6 +47,7 @@ public class UserRestController {
         }
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getUsername()));
         return ResponseEntity.created(UriComponentsBuilder.fromPath("/api/users/{username}")
                 .buildAndExpand(user.getUsername()).toUri())
             .body(userMapper.toUserDto(user));
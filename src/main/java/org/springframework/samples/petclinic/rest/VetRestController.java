@@ -1,19 +1,28 @@
 package org.springframework.samples.petclinic.rest;
 
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.mapper.SpecialtyMapper;
 import org.springframework.samples.petclinic.mapper.VetMapper;
 import org.springframework.samples.petclinic.model.Specialty;
 import org.springframework.samples.petclinic.model.Vet;
 import org.springframework.samples.petclinic.repository.SpecialtyRepository;
+import org.springframework.samples.petclinic.repository.ReactiveVetRepository;
 import org.springframework.samples.petclinic.repository.VetRepository;
 import org.springframework.samples.petclinic.rest.dto.VetDto;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
 import java.net.URI;
 import java.util.List;
@@ -29,17 +38,34 @@ public class VetRestController {
     private final VetMapper vetMapper;
     private final SpecialtyMapper specialtyMapper;
     private final VetRepository vetRepository;
+    private final ReactiveVetRepository reactiveVetRepository;
     private final SpecialtyRepository specialtyRepository;
+    private final SerializedResponseCache responseCache;
 
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = VetDto.class))))
     @GetMapping
-    public List<VetDto> listVets() {
-        List<Vet> allVets = vetRepository.findAll();
-        return vetMapper.toVetDtos(allVets);
+    public ResponseEntity<byte[]> listVets(WebRequest request) {
+        String etag = EntityTags.of(vetRepository.findVersionStamp(), specialtyRepository.findVersionStamp());
+        return responseCache.respond("/api/vets", etag, request, () -> vetMapper.toVetDtos(vetRepository.findAll()));
+    }
+
+    /**
+     * Read through R2DBC as the client takes the vets: no thread waits on the database, and a slow client holds one
+     * connection and a few rows, never a whole list.
+     */
+    @Operation(operationId = "streamVets", summary = "Stream all vets as newline-delimited JSON")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<VetDto> streamVets() {
+        return reactiveVetRepository.findAll().map(vetMapper::toVetDto);
     }
 
     @GetMapping("{vetId}")
-    public VetDto getVet(@PathVariable int vetId)  {
+    public VetDto getVet(@PathVariable int vetId, WebRequest request)  {
         Vet vet = vetRepository.findById(vetId).orElseThrow();
+        if (request.checkNotModified(vetTag(vet))) {
+            return null;
+        }
         return vetMapper.toVetDto(vet);
     }
 
@@ -54,8 +80,12 @@ public class VetRestController {
 
 
     @PutMapping("{vetId}")
-    public void updateVet(@PathVariable int vetId, @RequestBody VetDto vetDto)  {
+    public void updateVet(@PathVariable int vetId, @RequestBody VetDto vetDto, WebRequest request)  {
         Vet currentVet = vetRepository.findById(vetId).orElseThrow();
+        if (request.checkNotModified(vetTag(currentVet))) {
+            // If-Match names an outdated version: 412 Precondition Failed
+            return;
+        }
         currentVet.setFirstName(vetDto.getFirstName());
         currentVet.setLastName(vetDto.getLastName());
         currentVet.clearSpecialties();
@@ -65,6 +95,13 @@ public class VetRestController {
         updateSpecialties(currentVet);
     }
 
+    /**
+     * Specialty names are part of a vet's representation, so renaming any specialty changes every vet's tag.
+     */
+    private String vetTag(Vet vet) {
+        return EntityTags.of(vet.getVersion(), specialtyRepository.findVersionStamp());
+    }
+
     private void updateSpecialties(Vet currentVet) {
         if(currentVet.getNrOfSpecialties() > 0){
             Set<String> names = currentVet.getSpecialties().stream().map(Specialty::getName).collect(Collectors.toSet());
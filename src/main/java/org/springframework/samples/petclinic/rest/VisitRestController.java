@@ -1,27 +1,66 @@
 package org.springframework.samples.petclinic.rest;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.mapper.VisitMapper;
 import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.repository.PetRepository;
+import org.springframework.samples.petclinic.repository.RecentVisitsCache;
 import org.springframework.samples.petclinic.repository.VisitRepository;
+import org.springframework.samples.petclinic.repository.VisitSummary;
 import org.springframework.samples.petclinic.rest.dto.VisitDto;
 import org.springframework.samples.petclinic.rest.dto.VisitFieldsDto;
+import org.springframework.samples.petclinic.rest.dto.VisitImportResultDto;
+import org.springframework.samples.petclinic.rest.error.ValidationErrorExtractor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/visits")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole(@roles.OWNER_ADMIN)")
 public class VisitRestController {
+    /**
+     * Visits are written in chunks, each in its own transaction, so memory stays bounded for large imports.
+     * Within a chunk Hibernate sends the inserts in JDBC batches of hibernate.jdbc.batch_size.
+     */
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
     private final VisitRepository visitRepository;
+    private final PetRepository petRepository;
     private final VisitMapper visitMapper;
+    private final RecentVisitsCache recentVisitsCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @GetMapping
     public List<VisitDto> listVisits() {
@@ -29,8 +68,50 @@ public class VisitRestController {
         return visitMapper.toVisitsDto(visits);
     }
 
+    @Operation(operationId = "listVisitsPage", summary = "List visits one page at a time, ordered by date",
+        description = "Optionally restricted to a date range (inclusive) and to a pet or an owner's pets. Keyset pagination: "
+            + "pass the " + OwnerRestController.NEXT_CURSOR_HEADER + " response header back as 'cursor', with the same "
+            + "filters, to get the next page. The header is absent on the last page.")
+    @GetMapping(params = "size")
+    public ResponseEntity<List<VisitDto>> listVisitsPage(
+        @RequestParam(name = "size") int size,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(name = "petId", required = false) Integer petId,
+        @RequestParam(name = "ownerId", required = false) Integer ownerId) {
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        LocalDate afterDate = from == null ? EARLIEST : from;
+        int afterId = 0;
+        if (cursor != null) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            afterDate = after.dateKey(0);
+            afterId = after.intKey(1);
+        }
+        LocalDate until = to == null ? LATEST : to;
+        List<VisitSummary> visits;
+        if (petId != null && ownerId != null) {
+            visits = visitRepository.findSummariesByPetIdAndOwnerIdAfter(petId, ownerId, afterDate, afterId, until, limit);
+        } else if (petId != null) {
+            visits = visitRepository.findSummariesByPetIdAfter(petId, afterDate, afterId, until, limit);
+        } else if (ownerId != null) {
+            visits = visitRepository.findSummariesByOwnerIdAfter(ownerId, afterDate, afterId, until, limit);
+        } else {
+            visits = visitRepository.findSummariesAfter(afterDate, afterId, until, limit);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (visits.size() == limit.max()) {
+            VisitSummary last = visits.get(visits.size() - 1);
+            response.header(OwnerRestController.NEXT_CURSOR_HEADER, KeysetCursor.of(last.date(), last.id()).encode());
+        }
+        return response.body(visitMapper.toVisitDtos(visits));
+    }
+
     @GetMapping("{visitId}")
-    public VisitDto getVisit(@PathVariable int visitId) {
+    public VisitDto getVisit(@PathVariable int visitId, WebRequest request) {
+        if (request.checkNotModified(EntityTags.of(visitRepository.findVersionById(visitId).orElseThrow()))) {
+            return null;
+        }
         Visit visit = visitRepository.findById(visitId).orElseThrow();
         return visitMapper.toVisitDto(visit);
     }
@@ -39,17 +120,99 @@ public class VisitRestController {
     public ResponseEntity<Void> addVisit(@RequestBody @Validated VisitDto visitDto) {
         Visit visit = visitMapper.toVisit(visitDto);
         visitRepository.save(visit);
+        recentVisitsCache.visitAdded(visit);
         return ResponseEntity.created(UriComponentsBuilder.fromPath("/api/visits/{id}")
                         .buildAndExpand(visit.getId()).toUri())
                 .build();
     }
 
+    @Operation(operationId = "importVisits", summary = "Create many visits at once",
+        description = "Accepts a JSON array or a newline-delimited JSON stream of visits. Every visit is validated on its own: "
+            + "invalid ones are reported and skipped, the others are stored in batches.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = VisitDto.class))),
+            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = VisitDto.class))}))
+    @PostMapping(path = "import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<VisitImportResultDto> importVisits(InputStream body) throws IOException {
+        List<VisitImportResultDto> results = new ArrayList<>();
+        List<VisitImportResultDto> pendingResults = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<Visit> pendingVisits = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        // a top-level array is unwrapped, so arrays and NDJSON are read the same way, one visit at a time
+        try (MappingIterator<VisitDto> items = objectMapper.readerFor(VisitDto.class).readValues(body)) {
+            for (int index = 0; ; index++) {
+                VisitDto visitDto;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    visitDto = items.nextValue();
+                } catch (JsonParseException e) {
+                    // the rest of the input cannot be read reliably
+                    results.add(rejected(index, List.of("Malformed JSON: " + e.getOriginalMessage())));
+                    break;
+                } catch (JsonMappingException e) {
+                    results.add(rejected(index, List.of("Unreadable visit: " + e.getOriginalMessage())));
+                    continue;
+                }
+                Set<ConstraintViolation<VisitDto>> violations = validator.validate(visitDto);
+                if (!violations.isEmpty()) {
+                    results.add(rejected(index, ValidationErrorExtractor.extract(new ConstraintViolationException(violations))));
+                    continue;
+                }
+                VisitImportResultDto result = new VisitImportResultDto().setIndex(index);
+                results.add(result);
+                pendingResults.add(result);
+                pendingVisits.add(visitMapper.toVisit(visitDto).setId(null));
+                if (pendingVisits.size() == IMPORT_CHUNK_SIZE) {
+                    saveChunk(pendingVisits, pendingResults);
+                }
+            }
+        }
+        saveChunk(pendingVisits, pendingResults);
+        return results;
+    }
+
+    private void saveChunk(List<Visit> visits, List<VisitImportResultDto> results) {
+        Set<Integer> petIds = visits.stream().map(visit -> visit.getPet().getId()).collect(Collectors.toSet());
+        Set<Integer> existingPetIds = petIds.isEmpty() ? Set.of() : petRepository.findExistingIds(petIds);
+        List<Visit> accepted = new ArrayList<>(visits.size());
+        for (int i = 0; i < visits.size(); i++) {
+            Visit visit = visits.get(i);
+            if (existingPetIds.contains(visit.getPet().getId())) {
+                accepted.add(visit);
+            } else {
+                results.get(i).setStatus(VisitImportResultDto.Status.REJECTED)
+                    .getErrors().add("Pet " + visit.getPet().getId() + " not found");
+            }
+        }
+        if (!accepted.isEmpty()) {
+            visitRepository.saveAll(accepted);
+            accepted.forEach(recentVisitsCache::visitAdded);
+        }
+        for (int i = 0; i < visits.size(); i++) {
+            if (results.get(i).getStatus() == null) {
+                results.get(i).setStatus(VisitImportResultDto.Status.CREATED).setId(visits.get(i).getId());
+            }
+        }
+        visits.clear();
+        results.clear();
+    }
+
+    private static VisitImportResultDto rejected(int index, List<String> errors) {
+        return new VisitImportResultDto().setIndex(index).setStatus(VisitImportResultDto.Status.REJECTED).setErrors(errors);
+    }
+
     @PutMapping("{visitId}")
-    public void updateVisit(@PathVariable int visitId, @RequestBody @Validated VisitFieldsDto visitDto) {
+    public void updateVisit(@PathVariable int visitId, @RequestBody @Validated VisitFieldsDto visitDto, WebRequest request) {
         Visit currentVisit = visitRepository.findById(visitId).orElseThrow();
+        if (request.checkNotModified(EntityTags.of(currentVisit.getVersion()))) {
+            // If-Match names an outdated version: 412 Precondition Failed
+            return;
+        }
         currentVisit.setDate(visitDto.getDate());
         currentVisit.setDescription(visitDto.getDescription());
         visitRepository.save(currentVisit);
+        recentVisitsCache.visitsChanged(List.of(currentVisit.getPet().getId()));
     }
 
     @Transactional
@@ -57,5 +220,6 @@ public class VisitRestController {
     public void deleteVisit(@PathVariable int visitId) {
         Visit visit = visitRepository.findById(visitId).orElseThrow();
         visitRepository.delete(visit);
+        recentVisitsCache.visitsChanged(List.of(visit.getPet().getId()));
     }
 }
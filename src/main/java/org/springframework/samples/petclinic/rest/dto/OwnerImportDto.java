@@ -0,0 +1,23 @@
+package org.springframework.samples.petclinic.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An owner with its pets and their visits, as read by the bulk import. Ids are not imported, new ones are assigned.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class OwnerImportDto extends OwnerFieldsDto {
+
+    @Valid
+    @Schema(description = "The pets of the owner, each with its visits.")
+    private List<PetImportDto> pets = new ArrayList<>();
+}
@@ -0,0 +1,42 @@
+package org.springframework.samples.petclinic.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of the owner import response, written each time a chunk of owners has been committed.
+ */
+@Data
+public class OwnerImportProgressDto {
+
+    @Schema(example = "1000", description = "Owners read so far, rejected ones included.")
+    private int ownersRead;
+
+    @Schema(example = "998", description = "Owners stored so far.")
+    private int ownersCreated;
+
+    @Schema(example = "1534", description = "Pets stored so far.")
+    private int petsCreated;
+
+    @Schema(example = "4210", description = "Visits stored so far.")
+    private int visitsCreated;
+
+    @Schema(description = "Owners of this chunk that were not stored.")
+    private List<Rejection> rejected = new ArrayList<>();
+
+    @Schema(example = "false", description = "True on the last line, once the whole input has been read.")
+    private boolean done;
+
+    @Data
+    public static class Rejection {
+
+        @Schema(example = "17", description = "Position of the owner in the input, starting at 0.")
+        private int index;
+
+        @Schema(description = "Why the owner was rejected.")
+        private List<String> errors = new ArrayList<>();
+    }
+}
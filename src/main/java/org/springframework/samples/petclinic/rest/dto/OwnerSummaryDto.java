@@ -0,0 +1,29 @@
+package org.springframework.samples.petclinic.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class OwnerSummaryDto {
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY, example = "1", description = "The ID of the pet owner.")
+    private Integer id;
+
+    @Schema(example = "George", description = "The first name of the pet owner.")
+    private String firstName;
+
+    @Schema(example = "Franklin", description = "The last name of the pet owner.")
+    private String lastName;
+
+    @Schema(example = "110 W. Liberty St.", description = "The postal address of the pet owner.")
+    private String address;
+
+    @Schema(example = "Madison", description = "The city of the pet owner.")
+    private String city;
+
+    @Schema(example = "6085551023", description = "The telephone number of the pet owner.")
+    private String telephone;
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY, example = "2", description = "The number of pets owned by this individual.")
+    private int petCount;
+}
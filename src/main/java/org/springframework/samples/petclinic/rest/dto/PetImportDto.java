@@ -0,0 +1,20 @@
+package org.springframework.samples.petclinic.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class PetImportDto extends PetFieldsDto {
+
+    @Valid
+    @Schema(description = "The visits of the pet.")
+    private List<VisitFieldsDto> visits = new ArrayList<>();
+}
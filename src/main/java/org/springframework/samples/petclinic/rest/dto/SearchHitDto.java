@@ -0,0 +1,31 @@
+package org.springframework.samples.petclinic.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.springframework.lang.Nullable;
+
+@Data
+public class SearchHitDto {
+
+    public enum Kind {
+        OWNER, PET, VISIT
+    }
+
+    @Schema(example = "PET", description = "What was found.")
+    private Kind kind;
+
+    @Schema(example = "7", description = "The ID of the owner, pet or visit found.")
+    private int id;
+
+    @Schema(example = "6", description = "The ID of the owner, of the pet's owner or of the visited pet's owner.")
+    private @Nullable Integer ownerId;
+
+    @Schema(example = "7", description = "The ID of the pet or of the visited pet, absent for owners.")
+    private @Nullable Integer petId;
+
+    @Schema(example = "Samantha", description = "The owner's name, the pet's name or the visit description.")
+    private String title;
+
+    @Schema(example = "2.4", description = "Relevance, higher is better. Only meaningful within one response.")
+    private double score;
+}
@@ -0,0 +1,16 @@
+package org.springframework.samples.petclinic.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class TokenDto {
+
+    @Schema(description = "Signed token to send as 'Authorization: Bearer <token>'")
+    private String token;
+
+    @Schema(example = "2024-01-01T12:15:00Z", description = "Instant after which the token is rejected")
+    private Instant expiresAt;
+}
@@ -0,0 +1,17 @@
+package org.springframework.samples.petclinic.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class TokenRequestDto {
+
+    @NotBlank
+    @Schema(example = "admin", description = "The username")
+    private String username;
+
+    @NotBlank
+    @Schema(example = "admin", description = "The password")
+    private String password;
+}
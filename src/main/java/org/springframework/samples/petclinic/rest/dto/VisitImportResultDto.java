@@ -0,0 +1,28 @@
+package org.springframework.samples.petclinic.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class VisitImportResultDto {
+
+    public enum Status {
+        CREATED, REJECTED
+    }
+
+    @Schema(example = "0", description = "Position of the visit in the imported array or stream, starting at 0.")
+    private int index;
+
+    @Schema(example = "CREATED", description = "Whether the visit was stored.")
+    private Status status;
+
+    @Schema(example = "42", description = "The ID of the created visit.")
+    private @Nullable Integer id;
+
+    @Schema(description = "Why the visit was rejected.")
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,11 @@
+package org.springframework.samples.petclinic.rest.error;
+
+/**
+ * Thrown when a client sends a pagination cursor that was not issued by this server.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor, Throwable cause) {
+        super("Invalid pagination cursor: " + cursor, cause);
+    }
+}
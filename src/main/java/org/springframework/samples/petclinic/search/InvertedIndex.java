@@ -0,0 +1,304 @@
+package org.springframework.samples.petclinic.search;
+
+import org.springframework.samples.petclinic.search.SearchDocument.Key;
+import org.springframework.samples.petclinic.search.SearchIndex.Hit;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Term → document postings with a sorted term dictionary for prefix matches and a deletion neighbourhood
+ * (SymSpell) for typo-tolerant matches: every term is filed under each string obtained by deleting up to two of its
+ * characters, so the terms within two edits of a token are among those filed under the token's own deletions, and
+ * a lookup touches a few dozen keys however large the dictionary grows.
+ * <p>
+ * Numbers (telephones, mostly) are matched exactly or by prefix only: they are nearly all unique, a typo in one
+ * names somebody else's number, and their deletions would outnumber those of every word in the index.
+ * <p>
+ * Reads are lock-free. Concurrent {@link #put}s of different documents are safe (the startup rebuild indexes
+ * in parallel); updating or removing a document must not race with another write of the same document.
+ */
+class InvertedIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Pattern NUMBER = Pattern.compile("\\p{Digit}+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    /**
+     * Limits how many dictionary terms a single query token may expand to through prefix or fuzzy matching.
+     */
+    private static final int MAX_EXPANSIONS = 64;
+    private static final double EXACT_WEIGHT = 1.0;
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final double[] FUZZY_WEIGHT = {EXACT_WEIGHT, 0.5, 0.3};
+
+    private record Candidate(String term, int distance) {
+
+        static final Comparator<Candidate> CLOSEST_FIRST =
+            Comparator.comparingInt(Candidate::distance).thenComparing(Candidate::term);
+    }
+
+    private record Entry(SearchDocument document, Set<String> terms) {
+    }
+
+    private final Map<Key, Entry> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Key>> postings = new ConcurrentHashMap<>();
+    private final NavigableSet<String> terms = new ConcurrentSkipListSet<>();
+    private final Map<String, Set<String>> termsByDeletion = new ConcurrentHashMap<>();
+
+    int size() {
+        return documents.size();
+    }
+
+    /**
+     * Adds the document, or replaces the one with the same key. A visit without an owner gets the owner
+     * of its pet, if that pet is indexed.
+     */
+    void put(SearchDocument document) {
+        if (document.ownerId() == null && document.petId() != null) {
+            Entry pet = documents.get(new Key(SearchDocument.Kind.PET, document.petId()));
+            if (pet != null) {
+                document = document.withOwnerId(pet.document().ownerId());
+            }
+        }
+        Set<String> documentTerms = new LinkedHashSet<>();
+        for (String text : document.texts()) {
+            documentTerms.addAll(tokenize(text));
+        }
+        Key key = document.key();
+        Entry previous = documents.put(key, new Entry(document, documentTerms));
+        if (previous != null) {
+            previous.terms().stream().filter(term -> !documentTerms.contains(term)).forEach(term -> removePosting(term, key));
+        }
+        for (String term : documentTerms) {
+            postings.computeIfAbsent(term, this::addTerm).add(key);
+        }
+    }
+
+    void remove(Key key) {
+        Entry previous = documents.remove(key);
+        if (previous != null) {
+            previous.terms().forEach(term -> removePosting(term, key));
+        }
+    }
+
+    /**
+     * Documents matching every token of the query, best first. A token matches a term exactly, as its prefix,
+     * or within one typo (two for tokens of eight characters or more, none for numbers); rarer terms and closer
+     * matches score higher.
+     */
+    List<Hit> search(String query, int limit) {
+        Map<Key, Double> scores = null;
+        for (String token : new LinkedHashSet<>(tokenize(query))) {
+            Map<Key, Double> tokenScores = new HashMap<>();
+            expand(token).forEach((term, weight) -> {
+                Set<Key> keys = postings.getOrDefault(term, Set.of());
+                double idf = Math.log(1 + (double) documents.size() / Math.max(1, keys.size()));
+                for (Key key : keys) {
+                    tokenScores.merge(key, weight * idf, Math::max);
+                }
+            });
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((key, score) -> score + tokenScores.get(key));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        if (scores == null) {
+            return List.of();
+        }
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((key, score) -> {
+            Entry entry = documents.get(key);
+            if (entry != null) {
+                hits.add(new Hit(entry.document(), score));
+            }
+        });
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(hit -> hit.document().kind())
+            .thenComparingInt(hit -> hit.document().id()));
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    /**
+     * Lower-cased words and numbers, accents removed, so that "Estában" is found by "estaban".
+     */
+    static List<String> tokenize(String text) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Dictionary terms the token may stand for, with the weight of that match: the term itself, then terms it is
+     * a prefix of in sorted order, then misspellings closest first, until {@link #MAX_EXPANSIONS} are taken.
+     */
+    private Map<String, Double> expand(String token) {
+        Map<String, Double> expansions = new HashMap<>();
+        if (postings.containsKey(token)) {
+            expansions.put(token, EXACT_WEIGHT);
+        }
+        for (String term : terms.subSet(token, false, token + Character.MAX_VALUE, false)) {
+            if (expansions.size() >= MAX_EXPANSIONS) {
+                return expansions;
+            }
+            expansions.put(term, PREFIX_WEIGHT);
+        }
+        int maxEdits = isNumber(token) ? 0 : maxEdits(token);
+        if (maxEdits == 0) {
+            return expansions;
+        }
+        Set<String> looked = new HashSet<>();
+        List<Candidate> candidates = new ArrayList<>();
+        for (String deletion : deletions(token, maxEdits)) {
+            for (String term : termsByDeletion.getOrDefault(deletion, Set.of())) {
+                if (!expansions.containsKey(term) && looked.add(term)) {
+                    int distance = editDistance(token, term, maxEdits);
+                    if (distance <= maxEdits) {
+                        candidates.add(new Candidate(term, distance));
+                    }
+                }
+            }
+        }
+        candidates.sort(Candidate.CLOSEST_FIRST);
+        for (Candidate candidate : candidates) {
+            if (expansions.size() >= MAX_EXPANSIONS) {
+                break;
+            }
+            expansions.put(candidate.term(), FUZZY_WEIGHT[candidate.distance()]);
+        }
+        return expansions;
+    }
+
+    private static int maxEdits(String token) {
+        if (token.length() >= 8) {
+            return 2;
+        }
+        return token.length() >= 4 ? 1 : 0;
+    }
+
+    /**
+     * How many deletions of a term to file it under: enough for every token that {@link #maxEdits} lets reach it.
+     * Tokens of four to seven characters reach terms of three or more within one edit, tokens of eight or more
+     * reach terms of six or more within two.
+     */
+    private static int indexedEdits(String term) {
+        if (isNumber(term) || term.length() < 3) {
+            return 0;
+        }
+        return term.length() >= 6 ? 2 : 1;
+    }
+
+    private static boolean isNumber(String token) {
+        return NUMBER.matcher(token).matches();
+    }
+
+    /**
+     * The term and every distinct string left after deleting up to {@code edits} of its characters.
+     */
+    static Set<String> deletions(String term, int edits) {
+        Set<String> deletions = new HashSet<>();
+        deletions.add(term);
+        Set<String> previous = Set.of(term);
+        for (int edit = 0; edit < edits; edit++) {
+            Set<String> next = new HashSet<>();
+            for (String shorter : previous) {
+                for (int i = 0; i < shorter.length(); i++) {
+                    String deletion = shorter.substring(0, i) + shorter.substring(i + 1);
+                    if (deletions.add(deletion)) {
+                        next.add(deletion);
+                    }
+                }
+            }
+            previous = next;
+        }
+        return deletions;
+    }
+
+    /**
+     * Optimal string alignment distance (an adjacent transposition counts as one edit),
+     * or {@code max + 1} as soon as the distance is known to exceed {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previousPrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (rowMinimum > max) {
+                return max + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private Set<Key> addTerm(String term) {
+        terms.add(term);
+        for (String deletion : deletions(term, indexedEdits(term))) {
+            termsByDeletion.compute(deletion, (d, filed) -> {
+                Set<String> withDeletion = filed == null ? ConcurrentHashMap.newKeySet() : filed;
+                withDeletion.add(term);
+                return withDeletion;
+            });
+        }
+        return ConcurrentHashMap.newKeySet();
+    }
+
+    private void removePosting(String term, Key key) {
+        postings.computeIfPresent(term, (t, keys) -> {
+            keys.remove(key);
+            if (!keys.isEmpty()) {
+                return keys;
+            }
+            terms.remove(t);
+            for (String deletion : deletions(t, indexedEdits(t))) {
+                termsByDeletion.computeIfPresent(deletion, (d, filed) -> {
+                    filed.remove(t);
+                    return filed.isEmpty() ? null : filed;
+                });
+            }
+            return null;
+        });
+    }
+}
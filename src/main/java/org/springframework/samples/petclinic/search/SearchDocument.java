@@ -0,0 +1,62 @@
+package org.springframework.samples.petclinic.search;
+
+import org.springframework.lang.Nullable;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What the search index keeps of an owner, pet or visit: the texts it is found by and enough to link to it.
+ *
+ * @param ownerId the owner itself, the pet's owner or the visited pet's owner
+ * @param petId   the pet itself or the visited pet, null for owners
+ * @param title   short display text
+ * @param texts   the searchable field values
+ */
+public record SearchDocument(Kind kind, int id, @Nullable Integer ownerId, @Nullable Integer petId, String title,
+                             List<String> texts) {
+
+    public enum Kind {
+        OWNER, PET, VISIT
+    }
+
+    public record Key(Kind kind, int id) {
+    }
+
+    public Key key() {
+        return new Key(kind, id);
+    }
+
+    SearchDocument withOwnerId(@Nullable Integer ownerId) {
+        return new SearchDocument(kind, id, ownerId, petId, title, texts);
+    }
+
+    public static SearchDocument of(Owner owner) {
+        return new SearchDocument(Kind.OWNER, owner.getId(), owner.getId(), null,
+            owner.getFirstName() + " " + owner.getLastName(),
+            texts(owner.getFirstName(), owner.getLastName(), owner.getCity(), owner.getTelephone()));
+    }
+
+    public static SearchDocument of(Pet pet) {
+        Integer ownerId = pet.getOwner() == null ? null : pet.getOwner().getId();
+        return new SearchDocument(Kind.PET, pet.getId(), ownerId, pet.getId(), pet.getName(), texts(pet.getName()));
+    }
+
+    /**
+     * The owner is left out: the visited pet is often just a reference holding its id,
+     * {@link InvertedIndex#put} looks the owner up through the indexed pet instead.
+     */
+    public static SearchDocument of(Visit visit) {
+        Integer petId = visit.getPet() == null ? null : visit.getPet().getId();
+        return new SearchDocument(Kind.VISIT, visit.getId(), null, petId, visit.getDescription(),
+            texts(visit.getDescription()));
+    }
+
+    private static List<String> texts(String... values) {
+        return Arrays.stream(values).filter(Objects::nonNull).toList();
+    }
+}
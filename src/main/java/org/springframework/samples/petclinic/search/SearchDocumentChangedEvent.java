@@ -0,0 +1,11 @@
+package org.springframework.samples.petclinic.search;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Published whenever an owner, pet or visit is stored or deleted, so that the search index can follow.
+ *
+ * @param document the new state, or null if the entity was deleted
+ */
+public record SearchDocumentChangedEvent(SearchDocument.Key key, @Nullable SearchDocument document) {
+}
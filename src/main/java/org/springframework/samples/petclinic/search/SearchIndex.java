@@ -0,0 +1,105 @@
+package org.springframework.samples.petclinic.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.repository.OwnerCursorRepository;
+import org.springframework.samples.petclinic.repository.ReadFromPrimary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory full-text index of owners (name, city, telephone), pets (name) and visits (description),
+ * answering searches without touching the database.
+ * <p>
+ * Built once the application is ready from a single cursor over the owner aggregates, tokenizing in parallel,
+ * then kept current by the {@link SearchDocumentChangedEvent}s of committed transactions.
+ */
+@Slf4j
+@Component
+public class SearchIndex {
+
+    private final OwnerCursorRepository ownerCursorRepository;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+
+    /**
+     * Changes committed while a rebuild runs, replayed on the rebuilt index since its cursor may have missed them.
+     * Guarded by {@code this}; null when no rebuild is running.
+     */
+    private List<SearchDocumentChangedEvent> changesDuringRebuild;
+
+    public SearchIndex(OwnerCursorRepository ownerCursorRepository) {
+        this.ownerCursorRepository = ownerCursorRepository;
+    }
+
+    public record Hit(SearchDocument document, double score) {
+    }
+
+    public List<Hit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @ReadFromPrimary
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            List<SearchDocument> documents = new ArrayList<>();
+            ownerCursorRepository.forEachOwner(owner -> addDocuments(owner, documents));
+            InvertedIndex rebuilt = new InvertedIndex();
+            documents.parallelStream().forEach(rebuilt::put);
+            synchronized (this) {
+                changesDuringRebuild.forEach(change -> apply(rebuilt, change));
+                index = rebuilt;
+            }
+        } finally {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+        }
+        log.info("Search index built with {} documents in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDocumentChanged(SearchDocumentChangedEvent event) {
+        apply(index, event);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(event);
+        }
+    }
+
+    private static void apply(InvertedIndex index, SearchDocumentChangedEvent change) {
+        if (change.document() == null) {
+            index.remove(change.key());
+        } else {
+            index.put(change.document());
+        }
+    }
+
+    /**
+     * Visits get their owner right away: parallel indexing cannot rely on the pet being indexed first.
+     */
+    private static void addDocuments(Owner owner, List<SearchDocument> documents) {
+        documents.add(SearchDocument.of(owner));
+        for (Pet pet : owner.getPets()) {
+            documents.add(SearchDocument.of(pet));
+            for (Visit visit : pet.getVisits()) {
+                documents.add(SearchDocument.of(visit).withOwnerId(owner.getId()));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.springframework.samples.petclinic.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+
+/**
+ * JPA entity listener of {@link Owner}, {@link Pet} and {@link Visit} (created through Spring, so it can be injected)
+ * turning every write, including cascaded ones, into a {@link SearchDocumentChangedEvent}.
+ * <p>
+ * The document is captured at flush time; {@link SearchIndex} applies it once the transaction has committed.
+ */
+public class SearchIndexEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SearchIndexEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void stored(Object entity) {
+        SearchDocument document = documentOf(entity);
+        eventPublisher.publishEvent(new SearchDocumentChangedEvent(document.key(), document));
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        eventPublisher.publishEvent(new SearchDocumentChangedEvent(documentOf(entity).key(), null));
+    }
+
+    private static SearchDocument documentOf(Object entity) {
+        if (entity instanceof Owner owner) {
+            return SearchDocument.of(owner);
+        }
+        if (entity instanceof Pet pet) {
+            return SearchDocument.of(pet);
+        }
+        if (entity instanceof Visit visit) {
+            return SearchDocument.of(visit);
+        }
+        throw new IllegalArgumentException("Not searchable: " + entity.getClass().getName());
+    }
+}
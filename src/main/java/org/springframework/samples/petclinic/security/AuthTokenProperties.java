@@ -0,0 +1,20 @@
+package org.springframework.samples.petclinic.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Signing key and lifetime of the tokens issued when {@code petclinic.security.mode=token}.
+ *
+ * @param secret     base64 encoded HMAC-SHA256 key of at least 32 bytes, shared by all instances;
+ *                   when missing a random key is generated and tokens do not survive a restart
+ * @param timeToLive how long an issued token is accepted; tokens cannot be revoked, so keep it short
+ */
+@ConfigurationProperties("petclinic.security.token")
+public record AuthTokenProperties(
+    @Nullable String secret,
+    @DefaultValue("15m") Duration timeToLive) {
+}
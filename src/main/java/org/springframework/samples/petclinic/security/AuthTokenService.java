@@ -0,0 +1,121 @@
+package org.springframework.samples.petclinic.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies self-contained signed tokens, so that authenticated requests need neither a database lookup
+ * nor a BCrypt match.
+ * <p>
+ * A token is {@code base64url(payload) + "." + base64url(HMAC-SHA256(base64url(payload)))}, where the payload is
+ * {@code expiresAtEpochSecond:ROLE_A,ROLE_B:username}. The signature is checked over the encoded payload before
+ * anything in it is decoded or trusted.
+ */
+@Slf4j
+public class AuthTokenService {
+
+    private static final int MINIMUM_KEY_LENGTH = 32;
+    private static final char SEPARATOR = ':';
+    private static final char SIGNATURE_SEPARATOR = '.';
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final HmacSha256 hmac;
+    private final AuthTokenProperties properties;
+    private final Clock clock;
+
+    /**
+     * Only a handful of distinct role combinations exist, so verified tokens share their authority lists.
+     */
+    private final Map<String, List<GrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+
+    public AuthTokenService(AuthTokenProperties properties, Clock clock) {
+        this.hmac = new HmacSha256(signingKey(properties.secret()));
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public IssuedToken issue(Authentication authentication) {
+        Instant expiresAt = clock.instant().plus(properties.timeToLive());
+        String roles = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.joining(","));
+        String payload = expiresAt.getEpochSecond() + String.valueOf(SEPARATOR) + roles + SEPARATOR + authentication.getName();
+        byte[] encodedPayload = ENCODER.encode(payload.getBytes(StandardCharsets.UTF_8));
+        String token = new String(encodedPayload, StandardCharsets.US_ASCII)
+            + SIGNATURE_SEPARATOR + ENCODER.encodeToString(hmac.hash(encodedPayload));
+        return new IssuedToken(token, expiresAt);
+    }
+
+    /**
+     * @return the authenticated principal, or {@code null} if the token is malformed, forged or expired
+     */
+    @Nullable
+    public Authentication verify(String token) {
+        int signatureStart = token.lastIndexOf(SIGNATURE_SEPARATOR);
+        if (signatureStart <= 0) {
+            return null;
+        }
+        byte[] ascii = token.getBytes(StandardCharsets.US_ASCII);
+        byte[] signature;
+        byte[] payload;
+        try {
+            signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, hmac.hash(ascii, 0, signatureStart))) {
+                return null;
+            }
+            payload = DECODER.decode(token.substring(0, signatureStart));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String claims = new String(payload, StandardCharsets.UTF_8);
+        int rolesStart = claims.indexOf(SEPARATOR);
+        int usernameStart = claims.indexOf(SEPARATOR, rolesStart + 1);
+        if (rolesStart < 0 || usernameStart < 0) {
+            return null;
+        }
+        long expiresAt = Long.parseLong(claims, 0, rolesStart, 10);
+        if (clock.instant().getEpochSecond() >= expiresAt) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = authoritiesByRoles.computeIfAbsent(
+            claims.substring(rolesStart + 1, usernameStart), AuthorityUtils::commaSeparatedStringToAuthorityList);
+        return UsernamePasswordAuthenticationToken.authenticated(claims.substring(usernameStart + 1), null, authorities);
+    }
+
+    private static byte[] signingKey(@Nullable String secret) {
+        if (!StringUtils.hasText(secret)) {
+            log.warn("No petclinic.security.token.secret configured, using a random key: "
+                + "tokens will not be accepted by other instances or after a restart");
+            byte[] key = new byte[MINIMUM_KEY_LENGTH];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+        byte[] key = Base64.getDecoder().decode(secret);
+        if (key.length < MINIMUM_KEY_LENGTH) {
+            throw new IllegalStateException(
+                "petclinic.security.token.secret must be at least " + MINIMUM_KEY_LENGTH + " bytes long");
+        }
+        return key;
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,18 @@
+package org.springframework.samples.petclinic.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the cache of successful credential checks used by HTTP Basic authentication.
+ *
+ * @param timeToLive  how long a verified username/password pair is trusted without hitting the database and BCrypt
+ * @param maximumSize maximum number of cached username/password pairs
+ */
+@ConfigurationProperties("petclinic.security.auth-cache")
+public record AuthenticationCacheProperties(
+    @DefaultValue("5m") Duration timeToLive,
+    @DefaultValue("10000") long maximumSize) {
+}
@@ -0,0 +1,77 @@
+package org.springframework.samples.petclinic.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Remembers successful username/password checks so that repeated HTTP Basic requests skip
+ * the users/roles queries and the deliberately slow BCrypt match.
+ * <p>
+ * Cache keys hold a salted HMAC of the presented credentials, never the password itself; the salt is random
+ * per process. Failed attempts are not cached, so guessing passwords still costs a full BCrypt match.
+ */
+@Slf4j
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final int SALT_LENGTH = 32;
+
+    private final AuthenticationProvider delegate;
+    private final HmacSha256 credentialsHash;
+    private final Cache<CredentialsKey, Authentication> verified;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, AuthenticationCacheProperties properties) {
+        this.delegate = delegate;
+        byte[] salt = new byte[SALT_LENGTH];
+        new SecureRandom().nextBytes(salt);
+        credentialsHash = new HmacSha256(salt);
+        verified = Caffeine.newBuilder()
+            .expireAfterWrite(properties.timeToLive())
+            .maximumSize(properties.maximumSize())
+            .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        if (authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+        CredentialsKey key = keyOf(authentication.getName(), authentication.getCredentials().toString());
+        Authentication cached = verified.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            verified.put(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCredentialsChanged(UserCredentialsChangedEvent event) {
+        log.debug("Evicting cached credentials of user {}", event.username());
+        verified.asMap().keySet().removeIf(key -> key.username().equals(event.username()));
+    }
+
+    private CredentialsKey keyOf(String username, String password) {
+        byte[] hash = credentialsHash.hash((username + '\0' + password).getBytes(StandardCharsets.UTF_8));
+        return new CredentialsKey(username, Base64.getEncoder().encodeToString(hash));
+    }
+
+    private record CredentialsKey(String username, String credentialsHash) {
+    }
+}
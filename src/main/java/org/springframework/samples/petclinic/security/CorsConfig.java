@@ -12,7 +12,7 @@ class CorsConfig implements WebMvcConfigurer {
         .allowedOrigins("http://localhost:4200")
         .allowedMethods("GET","POST","PUT","PATCH","DELETE","OPTIONS")
         .allowedHeaders("*")
-        .exposedHeaders( "errors, content-type")
+        .exposedHeaders( "errors, content-type, X-Next-Cursor")
         .allowCredentials(true);
   }
 }
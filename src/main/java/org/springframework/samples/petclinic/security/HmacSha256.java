@@ -0,0 +1,42 @@
+package org.springframework.samples.petclinic.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+/**
+ * Thread-safe HMAC-SHA256 over a fixed key.
+ * <p>
+ * {@link Mac} instances are not thread-safe and expensive to look up, so each thread keeps its own initialized one.
+ */
+final class HmacSha256 {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    HmacSha256(byte[] key) {
+        SecretKeySpec secretKey = new SecretKeySpec(key, ALGORITHM);
+        mac = ThreadLocal.withInitial(() -> newMac(secretKey));
+    }
+
+    byte[] hash(byte[] data) {
+        return mac.get().doFinal(data);
+    }
+
+    byte[] hash(byte[] data, int offset, int length) {
+        Mac instance = mac.get();
+        instance.update(data, offset, length);
+        return instance.doFinal();
+    }
+
+    private static Mac newMac(SecretKeySpec secretKey) {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(secretKey);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
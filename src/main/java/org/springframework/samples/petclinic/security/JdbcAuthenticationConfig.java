@@ -0,0 +1,42 @@
+package org.springframework.samples.petclinic.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.jdbc.JdbcDaoImpl;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+
+/**
+ * Username/password verification against the users and roles tables, shared by every security mode.
+ */
+@Configuration
+@ConditionalOnProperty(name = "petclinic.security.enable", havingValue = "true")
+@EnableConfigurationProperties(AuthenticationCacheProperties.class)
+@RequiredArgsConstructor
+public class JdbcAuthenticationConfig {
+
+    private final DataSource dataSource;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    @Bean
+    public CachingAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+                                                                AuthenticationCacheProperties cacheProperties) {
+        JdbcDaoImpl users = new JdbcDaoImpl();
+        users.setDataSource(dataSource);
+        users.setUsersByUsernameQuery("select username,password,enabled from users where username=?");
+        users.setAuthoritiesByUsernameQuery("select username,role from roles where username=?");
+        DaoAuthenticationProvider jdbcAuthentication = new DaoAuthenticationProvider(users);
+        jdbcAuthentication.setPasswordEncoder(passwordEncoder);
+        return new CachingAuthenticationProvider(jdbcAuthentication, cacheProperties);
+    }
+}
@@ -0,0 +1,57 @@
+package org.springframework.samples.petclinic.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Clock;
+
+/**
+ * Stateless alternative to HTTP Basic: credentials are checked once by {@code POST /api/auth/token},
+ * later requests only present the signed token returned by it.
+ */
+@Configuration
+@EnableMethodSecurity(prePostEnabled = true)
+@ConditionalOnProperty(name = "petclinic.security.enable", havingValue = "true")
+@ConditionalOnProperty(name = "petclinic.security.mode", havingValue = "token")
+@EnableConfigurationProperties(AuthTokenProperties.class)
+public class TokenAuthenticationConfig {
+
+    @Bean
+    public AuthTokenService authTokenService(AuthTokenProperties properties) {
+        return new AuthTokenService(properties, Clock.systemUTC());
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager(CachingAuthenticationProvider authenticationProvider) {
+        return new ProviderManager(authenticationProvider);
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthTokenService tokenService) throws Exception {
+        // @formatter:off
+        http
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests((authz) -> authz
+                .requestMatchers(HttpMethod.POST, "/api/auth/token").permitAll()
+                .anyRequest().authenticated())
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(new AuthTokenFilter(tokenService), BasicAuthenticationFilter.class);
+        // @formatter:on
+        return http.build();
+    }
+}
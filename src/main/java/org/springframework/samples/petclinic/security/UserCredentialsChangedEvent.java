@@ -0,0 +1,8 @@
+package org.springframework.samples.petclinic.security;
+
+/**
+ * Published whenever a user's password or roles are created or modified,
+ * so that anything caching that user's credentials can drop them.
+ */
+public record UserCredentialsChangedEvent(String username) {
+}
@@ -1,25 +1,51 @@
 package org.springframework.samples.petclinic.util;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedResource;
-import org.springframework.util.StopWatch;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Simple Aspect for monitoring slow calls in the sample application.
+ * Aspect recording the latency of every repository call in a per-method {@link LatencyHistogram}.
+ * <p>
+ * Recording is lock-free, so monitoring never serializes concurrent repository calls.
+ * Percentiles are published over JMX and as {@code petclinic.repository.calls} Micrometer meters. The JMX
+ * {@link #reset()} only starts the histograms over: the published call counters keep counting, as counters must.
  */
 @ManagedResource("petclinic:type=CallMonitor")
 @Aspect
+@Component
 public class CallMonitoringAspect {
 
-    private boolean enabled = true;
+    static final String METER_NAME = "petclinic.repository.calls";
+    private static final double[] PUBLISHED_QUANTILES = {0.5, 0.99, 0.999};
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, MethodCalls> calls = new ConcurrentHashMap<>();
 
-    private int callCount = 0;
+    private volatile boolean enabled = true;
 
-    private long accumulatedCallTime = 0;
+    public CallMonitoringAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
     @ManagedAttribute
     public boolean isEnabled() {
@@ -31,44 +57,123 @@ public class CallMonitoringAspect {
         this.enabled = enabled;
     }
 
+    /**
+     * Starts every method over with an empty histogram. Calls completing concurrently may still be counted
+     * in the discarded histograms, recording threads are never blocked.
+     */
     @ManagedOperation
     public void reset() {
-        this.callCount = 0;
-        this.accumulatedCallTime = 0;
+        calls.values().forEach(methodCalls -> methodCalls.histogram = new LatencyHistogram());
     }
 
+    /**
+     * @return the number of calls since the last {@link #reset()}
+     */
     @ManagedAttribute
-    public int getCallCount() {
-        return callCount;
+    public long getCallCount() {
+        return calls.values().stream().mapToLong(methodCalls -> methodCalls.histogram.getCount()).sum();
     }
 
+    /**
+     * @return the average call time in milliseconds over all methods
+     */
     @ManagedAttribute
     public long getCallTime() {
+        long callCount = getCallCount();
         if (callCount > 0)
-            return accumulatedCallTime / callCount;
+            return TimeUnit.NANOSECONDS.toMillis(calls.values().stream().mapToLong(methodCalls -> methodCalls.histogram.getTotalNanos()).sum() / callCount);
         else
             return 0;
     }
 
+    @ManagedAttribute(description = "Call count and p50/p99/p999/max latency in microseconds per repository method")
+    public String[] getMethodLatencies() {
+        return calls.values().stream()
+            .sorted(Comparator.comparing(methodCalls -> methodCalls.name))
+            .map(methodCalls -> {
+                LatencyHistogram histogram = methodCalls.histogram;
+                return "%s count=%d p50=%d p99=%d p999=%d max=%d".formatted(methodCalls.name, histogram.getCount(),
+                    micros(histogram.getValueAtQuantile(0.5)), micros(histogram.getValueAtQuantile(0.99)),
+                    micros(histogram.getValueAtQuantile(0.999)), micros(histogram.getMaxNanos()));
+            })
+            .toArray(String[]::new);
+    }
+
+    /**
+     * @return the latency in nanoseconds at the given quantile for a method as listed by {@link #getMethodLatencies()}
+     */
+    @ManagedOperation
+    public long getLatencyNanos(String method, double quantile) {
+        return calls.values().stream()
+            .filter(methodCalls -> methodCalls.name.equals(method))
+            .findFirst()
+            .map(methodCalls -> methodCalls.histogram.getValueAtQuantile(quantile))
+            .orElse(0L);
+    }
 
-    @Around("within(@org.springframework.stereotype.Repository *)")
+    @Around("within(@org.springframework.stereotype.Repository *) || execution(* org.springframework.data.repository.Repository+.*(..))")
     public Object invoke(ProceedingJoinPoint joinPoint) throws Throwable {
         if (enabled) {
-            StopWatch sw = new StopWatch(joinPoint.toShortString());
-
-            sw.start("invoke");
+            long start = System.nanoTime();
             try {
                 return joinPoint.proceed();
             } finally {
-                sw.stop();
-                synchronized (this) {
-                    this.callCount++;
-                    this.accumulatedCallTime += sw.getTotalTimeMillis();
-                }
+                methodCalls(((MethodSignature) joinPoint.getSignature()).getMethod()).record(System.nanoTime() - start);
             }
         } else {
             return joinPoint.proceed();
         }
     }
 
+    private MethodCalls methodCalls(Method method) {
+        MethodCalls methodCalls = calls.get(method);
+        if (methodCalls != null) {
+            return methodCalls;
+        }
+        return calls.computeIfAbsent(method, this::register);
+    }
+
+    /**
+     * Names the method once, overloads apart, and publishes its meters.
+     */
+    private MethodCalls register(Method method) {
+        MethodCalls methodCalls = new MethodCalls(method.getDeclaringClass().getSimpleName() + "." + method.getName()
+            + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(",", "(", ")")));
+        Tags tags = Tags.of("method", methodCalls.name);
+        FunctionCounter.builder(METER_NAME, methodCalls.count, LongAdder::doubleValue)
+            .tags(tags)
+            .description("Repository calls")
+            .register(meterRegistry);
+        for (double quantile : PUBLISHED_QUANTILES) {
+            Gauge.builder(METER_NAME + ".latency", methodCalls, monitored -> monitored.histogram.getValueAtQuantile(quantile) / 1e9)
+                .tags(tags.and("quantile", Double.toString(quantile)))
+                .baseUnit("seconds")
+                .description("Repository call latency percentile since the last reset")
+                .register(meterRegistry);
+        }
+        return methodCalls;
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * Calls of one method: the latency histogram, replaced on {@link #reset()}, and the total count, never reset.
+     */
+    private static final class MethodCalls {
+
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private volatile LatencyHistogram histogram = new LatencyHistogram();
+
+        private MethodCalls(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos) {
+            histogram.record(nanos);
+            count.increment();
+        }
+    }
 }
@@ -0,0 +1,271 @@
+package org.springframework.samples.petclinic.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lists the columns that repository queries filter or sort on without an index starting with that column
+ * on the active database, available as the {@code indexadvisor} actuator endpoint.
+ * <p>
+ * Derived queries are analysed through their {@link PartTree}, {@code @Query} JPQL through the
+ * {@code alias.property} references in its WHERE and ORDER BY clauses. A column wrapped in UPPER()/LOWER()
+ * (also what IgnoreCase derives to) needs an index on that expression rather than on the plain column.
+ * Native SQL and JDBC repositories are not analysed.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "indexadvisor")
+public class IndexAdvisor {
+
+    private static final Pattern ENTITY_ALIAS = Pattern.compile(
+        "\\b(?:FROM|JOIN)\\s+(?:FETCH\\s+)?([\\w.]+)\\s+(?:AS\\s+)?(?!(?:WHERE|ORDER|GROUP|LEFT|INNER|JOIN)\\b)(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CLAUSES = Pattern.compile(
+        "\\bWHERE\\b(.*?)(?=\\bGROUP\\s+BY\\b|\\bORDER\\s+BY\\b|$)|\\bORDER\\s+BY\\b(.*)$",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern PROPERTY_REFERENCE = Pattern.compile(
+        "(?:\\b(UPPER|LOWER)\\s*\\(\\s*)?\\b(\\w+)\\.(\\w+(?:\\.\\w+)*)", Pattern.CASE_INSENSITIVE);
+
+    private final ListableBeanFactory beanFactory;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final boolean logOnStartup;
+
+    public IndexAdvisor(ListableBeanFactory beanFactory, EntityManagerFactory entityManagerFactory, DataSource dataSource,
+                        @Value("${petclinic.index-advisor.log-on-startup:false}") boolean logOnStartup) {
+        this.beanFactory = beanFactory;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.logOnStartup = logOnStartup;
+    }
+
+    /**
+     * @param repository   simple name of the repository interface
+     * @param method       query method name
+     * @param table        table queried
+     * @param column       column, or UPPER(column)/LOWER(column), used without a supporting index
+     */
+    public record IndexAdvice(String repository, String method, String table, String column) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logAdvice() {
+        if (logOnStartup) {
+            advise().forEach(advice -> log.warn("{}.{} uses {}.{} without an index starting with it",
+                advice.repository(), advice.method(), advice.table(), advice.column()));
+        }
+    }
+
+    @ReadOperation
+    public List<IndexAdvice> advise() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Repositories repositories = new Repositories(beanFactory);
+        Map<String, Set<String>> indexedColumns = new HashMap<>();
+        Set<IndexAdvice> advice = new LinkedHashSet<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            for (Method method : information.getQueryMethods()) {
+                for (ColumnUsage usage : columnUsages(sessionFactory, information.getDomainType(), method)) {
+                    Set<String> indexed = indexedColumns.computeIfAbsent(usage.table(), this::leadingIndexColumns);
+                    if (!indexed.contains(usage.indexKey())) {
+                        advice.add(new IndexAdvice(information.getRepositoryInterface().getSimpleName(), method.getName(),
+                            usage.table(), usage.indexKey()));
+                    }
+                }
+            }
+        }
+        List<IndexAdvice> result = new ArrayList<>(advice);
+        result.sort(Comparator.comparing(IndexAdvice::repository).thenComparing(IndexAdvice::method));
+        return result;
+    }
+
+    private record ColumnUsage(String table, String column, String function) {
+
+        String indexKey() {
+            return function == null ? column : function + "(" + column + ")";
+        }
+    }
+
+    private List<ColumnUsage> columnUsages(SessionFactoryImplementor sessionFactory, Class<?> domainType, Method method) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        if (query != null) {
+            return query.nativeQuery() ? List.of() : jpqlColumnUsages(sessionFactory, query.value());
+        }
+        PartTree tree;
+        try {
+            tree = new PartTree(method.getName(), domainType);
+        } catch (RuntimeException e) {
+            // not a derived query, e.g. a method implemented by the repository base class
+            return List.of();
+        }
+        List<ColumnUsage> usages = new ArrayList<>();
+        for (Part part : tree.getParts()) {
+            String function = part.shouldIgnoreCase() == Part.IgnoreCaseType.NEVER ? null : "upper";
+            addColumnUsage(sessionFactory, domainType.getName(), part.getProperty().toDotPath(), function, usages);
+        }
+        for (Sort.Order order : tree.getSort()) {
+            addColumnUsage(sessionFactory, domainType.getName(), order.getProperty(), null, usages);
+        }
+        return usages;
+    }
+
+    private List<ColumnUsage> jpqlColumnUsages(SessionFactoryImplementor sessionFactory, String jpql) {
+        Map<String, String> entityByAlias = new HashMap<>();
+        Matcher aliases = ENTITY_ALIAS.matcher(jpql);
+        while (aliases.find()) {
+            String source = aliases.group(1);
+            int dot = source.indexOf('.');
+            String entityName = dot < 0 ? source : associationTarget(sessionFactory, entityByAlias.get(source.substring(0, dot)),
+                source.substring(dot + 1));
+            String resolved = entityName == null ? null : resolveEntityName(sessionFactory, entityName);
+            if (resolved != null) {
+                entityByAlias.put(aliases.group(2), resolved);
+            }
+        }
+        List<ColumnUsage> usages = new ArrayList<>();
+        Matcher clauses = CLAUSES.matcher(jpql);
+        while (clauses.find()) {
+            String clause = clauses.group(1) != null ? clauses.group(1) : clauses.group(2);
+            Matcher references = PROPERTY_REFERENCE.matcher(clause);
+            while (references.find()) {
+                String entityName = entityByAlias.get(references.group(2));
+                if (entityName != null) {
+                    String function = references.group(1) == null ? null : references.group(1).toLowerCase(Locale.ROOT);
+                    addColumnUsage(sessionFactory, entityName, references.group(3), function, usages);
+                }
+            }
+        }
+        return usages;
+    }
+
+    /**
+     * Follows the property path through associations: {@code pet.id} is the pet_id column of the owning table,
+     * {@code pet.name} the name column of the pets table.
+     */
+    private void addColumnUsage(SessionFactoryImplementor sessionFactory, String entityName, String path, String function,
+                                List<ColumnUsage> usages) {
+        AbstractEntityPersister persister = persister(sessionFactory, entityName);
+        String[] segments = path.split("\\.");
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            Type type = persister.getPropertyType(segment);
+            boolean last = i == segments.length - 1;
+            if (type instanceof EntityType entityType && !last) {
+                AbstractEntityPersister target = persister(sessionFactory, entityType.getAssociatedEntityName());
+                if (i + 1 == segments.length - 1 && segments[i + 1].equals(target.getIdentifierPropertyName())) {
+                    addColumns(persister, segment, function, usages);
+                    return;
+                }
+                persister = target;
+            } else if (type.isCollectionType()) {
+                // SIZE(o.pets) and the like are answered through the foreign key on the other side
+                return;
+            } else if (last) {
+                addColumns(persister, segment, function, usages);
+            }
+        }
+    }
+
+    private static void addColumns(AbstractEntityPersister persister, String property, String function,
+                                   List<ColumnUsage> usages) {
+        String[] columns = property.equals(persister.getIdentifierPropertyName())
+            ? persister.getIdentifierColumnNames()
+            : persister.getPropertyColumnNames(property);
+        if (columns.length > 0) {
+            usages.add(new ColumnUsage(persister.getTableName(), columns[0].toLowerCase(Locale.ROOT), function));
+        }
+    }
+
+    private static String associationTarget(SessionFactoryImplementor sessionFactory, String entityName, String property) {
+        if (entityName == null) {
+            return null;
+        }
+        Type type = persister(sessionFactory, entityName).getPropertyType(property);
+        if (type instanceof EntityType entityType) {
+            return entityType.getAssociatedEntityName();
+        }
+        if (type instanceof CollectionType collectionType) {
+            return collectionType.getAssociatedEntityName(sessionFactory);
+        }
+        return null;
+    }
+
+    /**
+     * JPQL names entities by their short JPA name, Hibernate persisters are keyed by class name.
+     */
+    private static String resolveEntityName(SessionFactoryImplementor sessionFactory, String entityName) {
+        if (sessionFactory.getMappingMetamodel().findEntityDescriptor(entityName) != null) {
+            return entityName;
+        }
+        return sessionFactory.getMetamodel().getEntities().stream()
+            .filter(entity -> entity.getName().equals(entityName))
+            .map(entity -> entity.getJavaType().getName())
+            .findFirst()
+            .orElse(null);
+    }
+
+    private static AbstractEntityPersister persister(SessionFactoryImplementor sessionFactory, String entityName) {
+        return (AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(entityName);
+    }
+
+    /**
+     * Columns (or indexed expressions such as {@code upper(last_name)}) that some index of the table starts with.
+     */
+    private Set<String> leadingIndexColumns(String table) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> {
+                String storedTable = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+                Set<String> columns = new HashSet<>();
+                try (ResultSet indexes = metaData.getIndexInfo(null, null, storedTable, false, true)) {
+                    while (indexes.next()) {
+                        String column = indexes.getString("COLUMN_NAME");
+                        if (indexes.getShort("ORDINAL_POSITION") == 1 && column != null
+                            && indexes.getShort("TYPE") != DatabaseMetaData.tableIndexStatistic) {
+                            columns.add(column.replace("\"", "").replace(" ", "").toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+                return columns;
+            });
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not read the indexes of table {}", table, e);
+            return Set.of();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 CREATE TABLE IF NOT EXISTS vets (
   id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  version INTEGER NOT NULL DEFAULT 0,
   first_name VARCHAR(30) NOT NULL,
   last_name VARCHAR(30) NOT NULL
 );
@@ -8,6 +9,7 @@ CREATE INDEX idx_vets_last_name ON vets(last_name);
 
 CREATE TABLE IF NOT EXISTS specialties (
   id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  version INTEGER NOT NULL DEFAULT 0,
   name VARCHAR(80) NOT NULL
 );
 
@@ -21,26 +23,40 @@ CREATE TABLE IF NOT EXISTS vet_specialties (
   UNIQUE (vet_id, specialty_id)
 );
 
+CREATE INDEX idx_vet_specialties_specialty_id ON vet_specialties(specialty_id);
+
 CREATE TABLE IF NOT EXISTS types (
   id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  version INTEGER NOT NULL DEFAULT 0,
   name VARCHAR(80) NOT NULL
 );
 
 CREATE INDEX idx_types_name ON types(name);
 
+-- owner, pet and visit ids come from sequences handing out blocks of 50, so that inserts can be batched
+CREATE SEQUENCE IF NOT EXISTS owners_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS owners (
-  id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  id INTEGER PRIMARY KEY,
+  version INTEGER NOT NULL DEFAULT 0,
   first_name VARCHAR(30) NOT NULL,
   last_name VARCHAR(30) NOT NULL,
+  last_name_lower VARCHAR(30),
   address VARCHAR(255) NOT NULL,
   city VARCHAR(80) NOT NULL,
   telephone VARCHAR(20) NOT NULL
 );
 
-CREATE INDEX idx_owners_last_name ON owners(last_name);
+-- keyset pages of owners, ordered by (last_name, id)
+CREATE INDEX idx_owners_last_name ON owners(last_name, id);
+-- case-insensitive prefix search: last_name_lower LIKE 'prefix%' is a range scan on this index
+CREATE INDEX idx_owners_last_name_lower ON owners(last_name_lower);
+
+CREATE SEQUENCE IF NOT EXISTS pets_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS pets (
-  id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  id INTEGER PRIMARY KEY,
+  version INTEGER NOT NULL DEFAULT 0,
   name VARCHAR(30) NOT NULL,
   birth_date DATE NOT NULL,
   type_id INTEGER NOT NULL,
@@ -50,15 +66,25 @@ CREATE TABLE IF NOT EXISTS pets (
 );
 
 CREATE INDEX idx_pets_name ON pets(name);
+CREATE INDEX idx_pets_owner_id ON pets(owner_id);
+CREATE INDEX idx_pets_type_id ON pets(type_id);
+
+CREATE SEQUENCE IF NOT EXISTS visits_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS visits (
-  id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  id INTEGER PRIMARY KEY,
+  version INTEGER NOT NULL DEFAULT 0,
   pet_id INTEGER NOT NULL,
   visit_date DATE NOT NULL,
   description VARCHAR(255) NOT NULL,
   FOREIGN KEY (pet_id) REFERENCES pets(id) ON DELETE CASCADE
 );
 
+-- serves both the pet_id foreign key lookups and a pet's visits listed most recent first
+CREATE INDEX idx_visits_pet_id_visit_date ON visits(pet_id, visit_date DESC);
+-- keyset pages of all visits in a date range, ordered by (visit_date, id)
+CREATE INDEX idx_visits_visit_date_id ON visits(visit_date, id);
+
 CREATE TABLE IF NOT EXISTS users (
   username VARCHAR(20) NOT NULL PRIMARY KEY,
   password VARCHAR(255) NOT NULL,
@@ -71,4 +97,6 @@ CREATE TABLE IF NOT EXISTS roles (
   role VARCHAR(20) NOT NULL,
   UNIQUE (role, username),
   FOREIGN KEY (username) REFERENCES users(username) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX idx_roles_username ON roles(username);
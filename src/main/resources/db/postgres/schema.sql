@@ -1,5 +1,6 @@
 CREATE TABLE IF NOT EXISTS vets (
                                     id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                    version    INT NOT NULL DEFAULT 0,
                                     first_name TEXT,
                                     last_name  TEXT
 );
@@ -7,6 +8,7 @@ CREATE INDEX ON vets (last_name);
 
 CREATE TABLE IF NOT EXISTS specialties (
                                            id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                           version INT NOT NULL DEFAULT 0,
                                            name TEXT
 );
 CREATE INDEX ON specialties (name);
@@ -16,25 +18,38 @@ CREATE TABLE IF NOT EXISTS vet_specialties (
                                                specialty_id INT NOT NULL REFERENCES specialties (id),
                                                UNIQUE (vet_id, specialty_id)
 );
+CREATE INDEX ON vet_specialties (specialty_id);
 
 CREATE TABLE IF NOT EXISTS types (
                                      id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                     version INT NOT NULL DEFAULT 0,
                                      name TEXT
 );
 CREATE INDEX ON types (name);
 
+-- owner, pet and visit ids come from sequences handing out blocks of 50, so that inserts can be batched
+CREATE SEQUENCE IF NOT EXISTS owners_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS owners (
-                                      id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                      id         INT PRIMARY KEY,
+                                      version    INT NOT NULL DEFAULT 0,
                                       first_name TEXT,
                                       last_name  TEXT,
+                                      last_name_lower TEXT,
                                       address    TEXT,
                                       city       TEXT,
                                       telephone  TEXT
 );
-CREATE INDEX ON owners (last_name);
+-- keyset pages of owners, ordered by (last_name, id)
+CREATE INDEX ON owners (last_name, id);
+-- case-insensitive prefix search: text_pattern_ops lets LIKE 'prefix%' use the index whatever the collation
+CREATE INDEX ON owners (last_name_lower text_pattern_ops);
+
+CREATE SEQUENCE IF NOT EXISTS pets_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS pets (
-                                    id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                    id         INT PRIMARY KEY,
+                                    version    INT NOT NULL DEFAULT 0,
                                     name       TEXT,
                                     birth_date DATE,
                                     type_id    INT NOT NULL REFERENCES types (id),
@@ -42,14 +57,21 @@ CREATE TABLE IF NOT EXISTS pets (
 );
 CREATE INDEX ON pets (name);
 CREATE INDEX ON pets (owner_id);
+CREATE INDEX ON pets (type_id);
+
+CREATE SEQUENCE IF NOT EXISTS visits_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS visits (
-                                      id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                      id          INT PRIMARY KEY,
+                                      version     INT NOT NULL DEFAULT 0,
                                       pet_id      INT REFERENCES pets (id),
                                       visit_date  DATE,
                                       description TEXT
 );
-CREATE INDEX ON visits (pet_id);
+-- serves both the pet_id foreign key lookups and a pet's visits listed most recent first
+CREATE INDEX ON visits (pet_id, visit_date DESC);
+-- keyset pages of all visits in a date range, ordered by (visit_date, id)
+CREATE INDEX ON visits (visit_date, id);
 
 CREATE TABLE IF NOT EXISTS users (
   username VARCHAR(20) NOT NULL ,
@@ -65,3 +87,5 @@ CREATE TABLE IF NOT EXISTS roles (
   FOREIGN KEY (username) REFERENCES users (username),
   CONSTRAINT uni_username_role UNIQUE (role, username)
 );
+CREATE INDEX ON roles (username);
+
@@ -0,0 +1,35 @@
+package org.springframework.samples.petclinic;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The guard is in place on platform threads too: with no request allowed in, every API request is turned away.
+ */
+@SpringBootTest(properties = {
+    "spring.threads.virtual.enabled=false",
+    "petclinic.concurrency-limit.max-concurrent-requests=0",
+    "petclinic.concurrency-limit.queue-timeout=0s"})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "OWNER_ADMIN")
+class ConcurrencyLimitConfigTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void guardsApiRequestsOnPlatformThreads() throws Exception {
+        mockMvc.perform(get("/api/owners/1"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, ConcurrencyLimitFilter.RETRY_AFTER_SECONDS));
+    }
+}
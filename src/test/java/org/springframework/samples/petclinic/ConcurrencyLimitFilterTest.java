@@ -0,0 +1,77 @@
+package org.springframework.samples.petclinic;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    void turnsAwayRequestsBeyondTheLimitOnceTheQueueTimeoutExpires() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch leave = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/owners"), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        inside.countDown();
+                        await(leave);
+                    });
+                return null;
+            });
+            assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            MockFilterChain notReached = new MockFilterChain();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/vets"), rejected, notReached);
+
+            assertThat(rejected.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo(ConcurrencyLimitFilter.RETRY_AFTER_SECONDS);
+            assertThat(notReached.getRequest()).isNull();
+
+            leave.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            assertThat(filter.getAvailablePermits()).isEqualTo(1);
+        } finally {
+            leave.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void asynchronousRequestsKeepTheirPermitUntilComplete() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(2, Duration.ZERO);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/owners");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertThat(filter.getAvailablePermits()).isEqualTo(1);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(filter.getAvailablePermits()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
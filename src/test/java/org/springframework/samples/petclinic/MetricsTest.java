@@ -0,0 +1,57 @@
+package org.springframework.samples.petclinic;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItems;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@WithMockUser(roles = "OWNER_ADMIN")
+class MetricsTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void endpointRepositoryHibernateAndPoolMetricsArePublished() throws Exception {
+        mockMvc.perform(get("/api/owners/6"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.names", hasItems(
+                "http.server.requests",
+                "spring.data.repository.invocations",
+                "petclinic.repository.calls",
+                "hibernate.statements",
+                "hibernate.entities.loads",
+                "hibernate.second.level.cache.requests",
+                "hikaricp.connections.active",
+                "r2dbc.pool.pending",
+                SqlStatementCountFilter.METER_NAME)));
+    }
+
+    @Test
+    void prometheusScrapeHasPercentileHistograms() throws Exception {
+        mockMvc.perform(get("/api/owners/6"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+            .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+            .andExpect(content().string(containsString("petclinic_http_server_sql_statements_bucket{")));
+    }
+}
@@ -0,0 +1,146 @@
+package org.springframework.samples.petclinic;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reads and writes against two H2 databases, standing in for a primary and a replica that has fallen behind:
+ * the replica is loaded with the seed data once, and its George Franklin is renamed so that reads tell which
+ * database answered. A second, unreachable replica is failed over.
+ * <p>
+ * Not transactional: reads must run in their own read-only transactions to be routed.
+ */
+@SpringBootTest(properties = "petclinic.replicas.urls=" + ReplicaRoutingTest.REPLICA_URL + ","
+    + ReplicaRoutingTest.UNREACHABLE_REPLICA_URL)
+@AutoConfigureMockMvc
+@WithMockUser(roles = {"OWNER_ADMIN", "VET_ADMIN"})
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:petclinic-replica;DB_CLOSE_DELAY=-1";
+    static final String UNREACHABLE_REPLICA_URL = "jdbc:h2:tcp://localhost:1/petclinic";
+
+    private static final String OWNER = """
+        {"firstName": "Ebenezer", "lastName": "Thistlewood", "address": "Fleet St. 12",
+         "city": "Madison", "telephone": "6085550199"}
+        """;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void loadReplica() {
+        DriverManagerDataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/h2/schema.sql"), new ClassPathResource("db/h2/data.sql"))
+            .execute(replica);
+        new JdbcTemplate(replica).update("UPDATE owners SET first_name = 'Replicated' WHERE id = 1");
+    }
+
+    @AfterAll
+    static void dropReplica() {
+        new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void reads_goToTheReachableReplica() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/owners/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Replicated"));
+        }
+    }
+
+    @Test
+    void redirectAfterPost_readsTheNewOwnerFromThePrimary() throws Exception {
+        MockHttpServletResponse created = mockMvc.perform(post("/api/owners")
+                .contentType(MediaType.APPLICATION_JSON).content(OWNER))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse();
+        String location = created.getHeader(HttpHeaders.LOCATION);
+        String uri = location.substring(location.indexOf("/api/"));
+        Cookie readYourWrites = created.getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(readYourWrites).isNotNull();
+        assertThat(readYourWrites.isHttpOnly()).isTrue();
+        try {
+            mockMvc.perform(get(uri).cookie(readYourWrites))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Ebenezer"));
+            mockMvc.perform(get("/api/owners/1").cookie(readYourWrites))
+                .andExpect(jsonPath("$.firstName").value("George"));
+            // the replica has not caught up
+            mockMvc.perform(get(uri))
+                .andExpect(status().isNotFound());
+        } finally {
+            mockMvc.perform(delete(uri))
+                .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void readYourWrites_ignoresCookiesItDidNotSet() throws Exception {
+        long nextYear = System.currentTimeMillis() + 365L * 24 * 60 * 60 * 1000;
+        mockMvc.perform(get("/api/owners/1").cookie(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(nextYear))))
+            .andExpect(jsonPath("$.firstName").value("Replicated"));
+        mockMvc.perform(get("/api/owners/1").cookie(new Cookie(ReadYourWritesFilter.COOKIE, "soon")))
+            .andExpect(jsonPath("$.firstName").value("Replicated"));
+    }
+
+    @Test
+    void sharedCaches_areFilledFromThePrimary() throws Exception {
+        mockMvc.perform(get("/api/pettypes")).andExpect(status().isOk());
+        String location = mockMvc.perform(post("/api/pettypes")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"axolotl\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        try {
+            // another client, without the read-your-writes cookie
+            for (int i = 0; i < 2; i++) {
+                mockMvc.perform(get("/api/pettypes"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].name").value(hasItem("axolotl")));
+            }
+        } finally {
+            mockMvc.perform(delete(location.substring(location.indexOf("/api/"))))
+                .andExpect(status().is2xxSuccessful());
+        }
+    }
+
+    @Test
+    void replicaReads_stayOutOfTheSecondLevelCache() throws Exception {
+        entityManagerFactory.getCache().evictAll();
+
+        mockMvc.perform(get("/api/owners/1"))
+            .andExpect(jsonPath("$.firstName").value("Replicated"))
+            .andExpect(jsonPath("$.pets[0].type.id").value(1));
+        assertThat(entityManagerFactory.getCache().contains(PetType.class, 1)).isFalse();
+
+        mockMvc.perform(get("/api/pettypes/1")).andExpect(status().isOk());
+        assertThat(entityManagerFactory.getCache().contains(PetType.class, 1)).isTrue();
+    }
+}
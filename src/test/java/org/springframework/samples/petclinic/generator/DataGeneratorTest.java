@@ -0,0 +1,78 @@
+package org.springframework.samples.petclinic.generator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads a small dataset into the test database and removes it afterwards.
+ */
+@SpringBootTest
+class DataGeneratorTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Map<String, Integer> maxIdsBefore;
+
+    @BeforeEach
+    void rememberMaxIds() {
+        maxIdsBefore = Map.of("owners", maxId("owners"), "pets", maxId("pets"), "visits", maxId("visits"),
+            "vets", maxId("vets"), "specialties", maxId("specialties"));
+    }
+
+    @AfterEach
+    void removeGeneratedRows() {
+        jdbcTemplate.update("DELETE FROM visits WHERE id > ?", maxIdsBefore.get("visits"));
+        jdbcTemplate.update("DELETE FROM pets WHERE id > ?", maxIdsBefore.get("pets"));
+        jdbcTemplate.update("DELETE FROM owners WHERE id > ?", maxIdsBefore.get("owners"));
+        jdbcTemplate.update("DELETE FROM vet_specialties WHERE vet_id > ? OR specialty_id > ?",
+            maxIdsBefore.get("vets"), maxIdsBefore.get("specialties"));
+        jdbcTemplate.update("DELETE FROM vets WHERE id > ?", maxIdsBefore.get("vets"));
+        jdbcTemplate.update("DELETE FROM specialties WHERE id > ?", maxIdsBefore.get("specialties"));
+    }
+
+    @Test
+    void loadsChunksInParallelAndMovesTheSequencesPastThem() throws Exception {
+        DataGenerator generator = new DataGenerator(dataSource, new DataGeneratorProperties(7, 1_050, 5, 30, 5, 100, 64, 3));
+
+        DataGenerator.Summary summary = generator.generate();
+
+        assertThat(summary.owners()).isEqualTo(1_050);
+        assertThat(added("owners")).isEqualTo(1_050);
+        assertThat(added("pets")).isEqualTo(summary.pets()).isGreaterThan(1_050);
+        assertThat(added("visits")).isEqualTo(summary.visits()).isGreaterThan(summary.pets());
+        assertThat(added("vets")).isEqualTo(30);
+        assertThat(added("specialties")).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vet_specialties WHERE vet_id > ?", Integer.class,
+            maxIdsBefore.get("vets"))).isPositive();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM owners WHERE last_name_lower <> LOWER(last_name)",
+            Integer.class)).isZero();
+        // ids are contiguous, so the next id of each sequence is right past the generated rows
+        for (String table : new String[]{"owners", "pets", "visits"}) {
+            assertThat(maxId(table)).isEqualTo(maxIdsBefore.get(table) + added(table));
+            assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + table + "_seq", Integer.class))
+                .isEqualTo(maxId(table) + 1);
+        }
+    }
+
+    private int added(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id > ?", Integer.class,
+            maxIdsBefore.get(table));
+    }
+
+    private int maxId(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,123 @@
+package org.springframework.samples.petclinic.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SyntheticDataTest {
+
+    SyntheticData data = new SyntheticData(42, 5, 6);
+
+    @Test
+    void sameSeedAndChunkYieldTheSameRows() {
+        assertThat(rows(new SyntheticData(42, 5, 6), 3)).isEqualTo(rows(data, 3));
+        assertThat(rows(new SyntheticData(43, 5, 6), 3)).isNotEqualTo(rows(data, 3));
+        assertThat(rows(data, 4)).isNotEqualTo(rows(data, 3));
+    }
+
+    @Test
+    void petsPerOwnerAreSkewedAndVisitHistoriesLongTailed() {
+        int owners = 20_000;
+        int[] petsOfOwner = new int[owners];
+        Map<Integer, Integer> visitsOfPet = new HashMap<>();
+        data.owners(0, 0, owners, new SyntheticData.OwnerSink() {
+            @Override
+            public void owner(int owner, String firstName, String lastName, String address, String city, String telephone) {
+            }
+
+            @Override
+            public void pet(int pet, int owner, String name, LocalDate birthDate, int petType) {
+                petsOfOwner[owner]++;
+                visitsOfPet.put(pet, 0);
+            }
+
+            @Override
+            public void visit(int pet, LocalDate date, String description) {
+                visitsOfPet.merge(pet, 1, Integer::sum);
+            }
+        });
+
+        long withoutPets = Arrays.stream(petsOfOwner).filter(pets -> pets == 0).count();
+        long withOnePet = Arrays.stream(petsOfOwner).filter(pets -> pets == 1).count();
+        assertThat((double) withoutPets / owners).isCloseTo(0.08, within(0.01));
+        assertThat(withOnePet).isGreaterThan(owners / 2);
+        assertThat(Arrays.stream(petsOfOwner).max().getAsInt()).isEqualTo(SyntheticData.MAX_PETS_PER_OWNER);
+        assertThat((double) visitsOfPet.size() / owners).isCloseTo(1.8, within(0.15));
+        assertThat(visitsOfPet.values().stream().mapToInt(Integer::intValue).average().orElseThrow()).isCloseTo(5, within(0.5));
+        assertThat(visitsOfPet.values().stream().mapToInt(Integer::intValue).max().orElseThrow()).isGreaterThan(50);
+    }
+
+    @Test
+    void visitsFallWithinThePetsLifetimeInDateOrder() {
+        Map<Integer, LocalDate> birthDates = new HashMap<>();
+        Map<Integer, LocalDate> lastVisits = new HashMap<>();
+        data.owners(0, 0, 1_000, new SyntheticData.OwnerSink() {
+            @Override
+            public void owner(int owner, String firstName, String lastName, String address, String city, String telephone) {
+                assertThat(telephone).matches("[0-9]{10}");
+            }
+
+            @Override
+            public void pet(int pet, int owner, String name, LocalDate birthDate, int petType) {
+                assertThat(petType).isBetween(0, 5);
+                birthDates.put(pet, birthDate);
+            }
+
+            @Override
+            public void visit(int pet, LocalDate date, String description) {
+                assertThat(date).isBetween(birthDates.get(pet), SyntheticData.LATEST_VISIT);
+                assertThat(date).isAfterOrEqualTo(lastVisits.getOrDefault(pet, LocalDate.MIN));
+                lastVisits.put(pet, date);
+            }
+        });
+    }
+
+    @Test
+    void vetsHaveDistinctSpecialties() {
+        List<int[]> specialties = new ArrayList<>();
+        data.vets(1_000, 4, (vet, firstName, lastName, vetSpecialties) -> specialties.add(vetSpecialties));
+
+        assertThat(specialties).hasSize(1_000)
+            .allSatisfy(vetSpecialties -> assertThat(vetSpecialties).doesNotHaveDuplicates().hasSizeLessThanOrEqualTo(3));
+        assertThat(specialties).filteredOn(vetSpecialties -> vetSpecialties.length == 0).hasSizeBetween(250, 350);
+    }
+
+    @Test
+    void specialtyNamesSkipTakenOnesAndAreNumberedOnceTheKnownOnesRunOut() {
+        List<String> names = SyntheticData.specialtyNames(25, Set.of("radiology", "surgery", "dentistry"));
+
+        assertThat(names).hasSize(25).doesNotHaveDuplicates().doesNotContain("radiology", "surgery", "dentistry")
+            .startsWith("internal medicine").contains("radiology 2", "surgery 2");
+    }
+
+    private static List<String> rows(SyntheticData data, int chunk) {
+        List<String> rows = new ArrayList<>();
+        data.owners(chunk, chunk * 100, 100, new SyntheticData.OwnerSink() {
+            @Override
+            public void owner(int owner, String firstName, String lastName, String address, String city, String telephone) {
+                rows.add(String.join("|", "owner", String.valueOf(owner), firstName, lastName, address, city, telephone));
+            }
+
+            @Override
+            public void pet(int pet, int owner, String name, LocalDate birthDate, int petType) {
+                rows.add(String.join("|", "pet", String.valueOf(pet), String.valueOf(owner), name, birthDate.toString(),
+                    String.valueOf(petType)));
+            }
+
+            @Override
+            public void visit(int pet, LocalDate date, String description) {
+                rows.add(String.join("|", "visit", String.valueOf(pet), date.toString(), description));
+            }
+        });
+        return rows;
+    }
+}
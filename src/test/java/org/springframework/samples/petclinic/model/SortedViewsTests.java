@@ -0,0 +1,35 @@
+package org.springframework.samples.petclinic.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The sorted views must keep the order the REST API has always returned.
+ */
+class SortedViewsTests {
+
+    @Test
+    void petsAreSortedByNameIgnoringCaseWithUnnamedPetsLast() {
+        Owner owner = new Owner();
+        owner.addPet(new Pet().setName("max"));
+        owner.addPet(new Pet());
+        owner.addPet(new Pet().setName("Basil"));
+        owner.addPet(new Pet().setName("Leo"));
+
+        assertThat(owner.getPets()).extracting(Pet::getName).containsExactly("Basil", "Leo", "max", null);
+    }
+
+    @Test
+    void visitsAreSortedMostRecentFirstWithUndatedVisitsFirst() {
+        Pet pet = new Pet();
+        pet.addVisit(new Visit().setDescription("old").setDate(LocalDate.of(2010, 3, 4)));
+        pet.addVisit(new Visit().setDescription("undated").setDate(null));
+        pet.addVisit(new Visit().setDescription("recent").setDate(LocalDate.of(2013, 1, 2)));
+
+        assertThat(pet.getVisitsSortedByDate()).extracting(Visit::getDescription)
+            .containsExactly("undated", "recent", "old");
+    }
+}
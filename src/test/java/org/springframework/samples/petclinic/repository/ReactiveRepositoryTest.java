@@ -0,0 +1,77 @@
+package org.springframework.samples.petclinic.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Specialty;
+import org.springframework.samples.petclinic.model.Vet;
+import org.springframework.samples.petclinic.model.Visit;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The reactive repositories against the H2 database of the JDBC side, through r2dbc-h2.
+ */
+@SpringBootTest
+class ReactiveRepositoryTest {
+
+    @Autowired
+    ReactiveOwnerRepository reactiveOwnerRepository;
+
+    @Autowired
+    ReactiveVetRepository reactiveVetRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ownersAreAssembledOneAtATimeAsTheyAreRequested() {
+        StepVerifier.create(reactiveOwnerRepository.findAll(null), 1)
+            .assertNext(owner -> assertThat(owner.getLastName()).isEqualTo("Franklin"))
+            .expectNoEvent(Duration.ofMillis(100))
+            .thenRequest(5)
+            .expectNextCount(4)
+            .assertNext(coleman -> {
+                assertThat(coleman.getId()).isEqualTo(6);
+                assertThat(coleman.getPets()).extracting(Pet::getName).contains("Samantha", "Max");
+                assertThat(coleman.getPets()).flatExtracting(Pet::getVisits).extracting(Visit::getDescription)
+                    .contains("rabies shot", "neutered", "spayed");
+            })
+            .thenCancel()
+            .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void lastNamePrefixIsMatchedIgnoringCaseAndWildcardsLiterally() {
+        StepVerifier.create(reactiveOwnerRepository.findAll("DAV").map(Owner::getLastName))
+            .expectNext("Davis", "Davis")
+            .verifyComplete();
+        StepVerifier.create(reactiveOwnerRepository.findAll("%"))
+            .verifyComplete();
+    }
+
+    @Test
+    void vetsComeWithTheirSpecialtiesAndSeeWhatJdbcCommitted() {
+        jdbcTemplate.update("INSERT INTO vets (first_name, last_name) VALUES ('Reactive', 'Reader')");
+        try {
+            StepVerifier.create(reactiveVetRepository.findAll())
+                .recordWith(ArrayList::new)
+                .thenConsumeWhile(vet -> true)
+                .consumeRecordedWith(vets -> {
+                    assertThat(vets).extracting(Vet::getLastName).startsWith("Carter").endsWith("Reader");
+                    Vet douglas = vets.stream().filter(vet -> vet.getLastName().equals("Douglas")).findFirst().orElseThrow();
+                    assertThat(douglas.getSpecialties()).extracting(Specialty::getName).containsExactly("dentistry", "surgery");
+                })
+                .verifyComplete();
+        } finally {
+            jdbcTemplate.update("DELETE FROM vets WHERE last_name = 'Reader'");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.springframework.samples.petclinic.rest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not @Transactional on purpose: versions are only incremented when changes are flushed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = {"OWNER_ADMIN", "VET_ADMIN"})
+class ConditionalRequestTest {
+
+    private static final String OWNER = """
+        {"firstName": "Ebenezer", "lastName": "Thistlewood", "address": "Fleet St. 12",
+         "city": "Madison", "telephone": "6085550199"}
+        """;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void ownerTagFollowsTheWholeAggregate() throws Exception {
+        String location = mockMvc.perform(post("/api/owners").contentType(MediaType.APPLICATION_JSON).content(OWNER))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        String uri = location.substring(location.indexOf("/api/"));
+        try {
+            String created = etagOf(uri);
+            mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, created))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+            mockMvc.perform(post(uri + "/pets")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\": \"Barnaby\", \"birthDate\": \"2021-03-04\", \"type\": {\"id\": 2, \"name\": \"dog\"}}"))
+                .andExpect(status().isCreated());
+            String withPet = etagOf(uri);
+            assertThat(withPet).isNotEqualTo(created);
+            mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, created))
+                .andExpect(status().isOk());
+
+            mockMvc.perform(put(uri)
+                    .header(HttpHeaders.IF_MATCH, created)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(OWNER.replace("Fleet St. 12", "Fleet St. 14")))
+                .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(put(uri)
+                    .header(HttpHeaders.IF_MATCH, withPet)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(OWNER.replace("Fleet St. 12", "Fleet St. 14")))
+                .andExpect(status().is2xxSuccessful());
+            assertThat(etagOf(uri)).isNotIn(created, withPet);
+        } finally {
+            mockMvc.perform(delete(uri)).andExpect(status().isOk());
+        }
+        mockMvc.perform(get(uri)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void collectionTagChangesWithAnyMember() throws Exception {
+        String before = etagOf("/api/pettypes");
+        mockMvc.perform(get("/api/pettypes").header(HttpHeaders.IF_NONE_MATCH, before))
+            .andExpect(status().isNotModified());
+        String typeBefore = etagOf("/api/pettypes/3");
+        try {
+            renamePetType("gecko", typeBefore);
+
+            mockMvc.perform(get("/api/pettypes").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(before)));
+            mockMvc.perform(put("/api/pettypes/3")
+                    .header(HttpHeaders.IF_MATCH, typeBefore)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"id\": 3, \"name\": \"iguana\"}"))
+                .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(get("/api/pettypes/3")).andExpect(status().isOk());
+        } finally {
+            renamePetType("lizard", etagOf("/api/pettypes/3"));
+        }
+    }
+
+    @Test
+    void vetTagsCoverSpecialtyNames() throws Exception {
+        String vets = etagOf("/api/vets");
+        String vet = etagOf("/api/vets/2");
+        String specialty = etagOf("/api/specialties/1");
+        mockMvc.perform(get("/api/specialties/1").header(HttpHeaders.IF_NONE_MATCH, specialty))
+            .andExpect(status().isNotModified());
+        try {
+            renameSpecialty("cardiology");
+
+            mockMvc.perform(get("/api/vets").header(HttpHeaders.IF_NONE_MATCH, vets)).andExpect(status().isOk());
+            mockMvc.perform(get("/api/vets/2").header(HttpHeaders.IF_NONE_MATCH, vet)).andExpect(status().isOk());
+        } finally {
+            renameSpecialty("radiology");
+        }
+    }
+
+    private String etagOf(String uri) throws Exception {
+        String etag = mockMvc.perform(get(uri))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).matches("\"[0-9a-f]{32}\"");
+        return etag;
+    }
+
+    private void renamePetType(String name, String etag) throws Exception {
+        mockMvc.perform(put("/api/pettypes/3")
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": 3, \"name\": \"%s\"}".formatted(name)))
+            .andExpect(status().is2xxSuccessful());
+    }
+
+    private void renameSpecialty(String name) throws Exception {
+        mockMvc.perform(put("/api/specialties/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": 1, \"name\": \"%s\"}".formatted(name)))
+            .andExpect(status().is2xxSuccessful());
+    }
+}
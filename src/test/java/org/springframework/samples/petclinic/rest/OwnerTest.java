@@ -1,5 +1,6 @@
 package org.springframework.samples.petclinic.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -18,6 +19,7 @@ import org.springframework.samples.petclinic.repository.OwnerRepository;
 import org.springframework.samples.petclinic.repository.PetRepository;
 import org.springframework.samples.petclinic.repository.PetTypeRepository;
 import org.springframework.samples.petclinic.rest.dto.OwnerDto;
+import org.springframework.samples.petclinic.rest.dto.OwnerSummaryDto;
 import org.springframework.samples.petclinic.rest.dto.PetDto;
 import org.springframework.samples.petclinic.rest.dto.PetTypeDto;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -25,10 +27,15 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -133,6 +140,16 @@ public class OwnerTest {
             .doesNotContain(Assertions.tuple(ownerId, "Franklin"));
     }
 
+    @Test
+    void getAllWithLastNameFilter_findsRenamedOwnerCaseInsensitively() throws Exception {
+        ownerRepository.findById(ownerId).orElseThrow().setLastName("Quartermaine");
+
+        assertThat(search("/api/owners?lastName=quart"))
+            .extracting(OwnerDto::getId, OwnerDto::getLastName)
+            .containsExactly(Assertions.tuple(ownerId, "Quartermaine"));
+        assertThat(search("/api/owners?lastName=Franklin")).extracting(OwnerDto::getId).doesNotContain(ownerId);
+    }
+
     private OwnerDto[] search(String uriTemplate) throws Exception {
         String responseJson = mockMvc.perform(get(uriTemplate))
             .andExpect(status().isOk())
@@ -143,6 +160,116 @@ public class OwnerTest {
         return mapper.readValue(responseJson, OwnerDto[].class);
     }
 
+    @Test
+    void searchSummaries_countsPetsCaseInsensitively() throws Exception {
+        String responseJson = mockMvc.perform(get("/api/owners?view=summary&lastName=fRaNk"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        OwnerSummaryDto[] summaries = mapper.readValue(responseJson, OwnerSummaryDto[].class);
+
+        assertThat(summaries)
+            .extracting(OwnerSummaryDto::getId, OwnerSummaryDto::getLastName, OwnerSummaryDto::getPetCount)
+            .contains(Assertions.tuple(ownerId, "Franklin", 1));
+        assertThat(summaries).extracting(OwnerSummaryDto::getLastName).containsOnly("Franklin");
+    }
+
+    @Test
+    void searchSummaries_matchesWildcardsLiterally() throws Exception {
+        mockMvc.perform(get("/api/owners?view=summary&lastName={prefix}", "%"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/owners?view=summary&lastName={prefix}", "fr_nk"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/owners?view=summary&lastName={prefix}", "\\"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void searchSummaries_honoursLimit() throws Exception {
+        mockMvc.perform(get("/api/owners?view=summary&limit=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].pets").doesNotExist());
+    }
+
+    @Test
+    void searchSummaries_clampsLimit() throws Exception {
+        mockMvc.perform(get("/api/owners?view=summary&limit=-1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/owners?view=summary&limit=0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void getAllPaged_walksEveryOwnerOnceInLastNameOrder() throws Exception {
+        List<OwnerDto> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            String uri = "/api/owners?size=3" + (cursor == null ? "" : "&cursor=" + cursor);
+            var response = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+            OwnerDto[] page = mapper.readValue(response.getContentAsString(), OwnerDto[].class);
+            assertThat(page.length).isLessThanOrEqualTo(3);
+            walked.addAll(List.of(page));
+            cursor = response.getHeader(OwnerRestController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(walked)
+            .extracting(OwnerDto::getId)
+            .doesNotHaveDuplicates()
+            .containsExactlyInAnyOrderElementsOf(List.of(search("/api/owners")).stream().map(OwnerDto::getId).toList());
+        assertThat(walked)
+            .isSortedAccordingTo(Comparator.comparing(OwnerDto::getLastName).thenComparing(OwnerDto::getId));
+    }
+
+    @Test
+    void getAllPaged_rejectsForgedCursor() throws Exception {
+        mockMvc.perform(get("/api/owners?size=3&cursor=not-a-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().doesNotExist(OwnerRestController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void streamAll_writesOneOwnerPerLineWithPetsAndVisits() throws Exception {
+        List<OwnerDto> owners = streamOwners("/api/owners");
+
+        assertThat(owners).isSortedAccordingTo(Comparator.comparing(OwnerDto::getId));
+        OwnerDto coleman = owners.stream().filter(o -> o.getLastName().equals("Coleman")).findFirst().orElseThrow();
+        assertThat(coleman.getPets()).extracting(PetDto::getName).containsExactly("Max", "Samantha");
+        assertThat(coleman.getPets().get(1).getVisits()).hasSize(2);
+    }
+
+    @Test
+    void streamWithLastNameFilter_writesOnlyMatchingOwners() throws Exception {
+        assertThat(streamOwners("/api/owners?lastName=davis")).extracting(OwnerDto::getLastName)
+            .containsExactly("Davis", "Davis");
+        assertThat(streamOwners("/api/owners?lastName=%25")).isEmpty();
+    }
+
+    private List<OwnerDto> streamOwners(String uri) throws Exception {
+        var asyncResult = mockMvc.perform(get(uri).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        List<OwnerDto> owners = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                owners.add(mapper.readValue(line, OwnerDto.class));
+            }
+        }
+        return owners;
+    }
+
     @Test
     void getAllWithLastNameFilter_notFound() throws Exception {
         OwnerDto[] results = search("/api/owners?lastName=NonExistent");
@@ -284,6 +411,14 @@ public class OwnerTest {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getOwnerPet_petOfAnotherOwner() throws Exception {
+        int otherOwnerId = ownerRepository.save(TestData.anOwner()).getId();
+
+        mockMvc.perform(get("/api/owners/" + otherOwnerId + "/pets/" + petId))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     void getOwnerPet_petNotFound() throws Exception {
         mockMvc.perform(get("/api/owners/" + ownerId + "/pets/99999"))
@@ -349,4 +484,114 @@ public class OwnerTest {
         assertThat(responseDto.getPets().get(0).getType()).isNotNull();
         assertThat(responseDto.getPets().get(0).getType().getName()).isEqualTo("dog");
     }
+
+    @Test
+    void exportCsv_writesOneRowPerVisitWithOwnerAndPetColumns() throws Exception {
+        String csv = exportCsv();
+
+        String[] lines = csv.split("\n");
+        assertThat(lines[0]).isEqualTo("ownerId,firstName,lastName,address,city,telephone,"
+            + "petId,petName,birthDate,typeId,typeName,visitId,visitDate,description");
+        assertThat(lines).contains(
+            "6,Jean,Coleman,\"105 N. Lake St.\",Monona,6085552654,8,Max,2012-09-04,1,cat,3,2013-01-03,neutered",
+            "1,George,Franklin,\"110 W. Liberty St.\",Madison,6085551023,1,Leo,2010-09-07,1,cat,,,");
+    }
+
+    @Test
+    void importCsv_roundTripsTheExport() throws Exception {
+        String csv = exportCsv();
+        // the export runs on another thread, so it sees the committed owners only
+        long owners = csv.lines().skip(1).map(line -> line.substring(0, line.indexOf(','))).distinct().count();
+
+        mockMvc.perform(post("/api/owners/import")
+                .content(csv)
+                .contentType("text/csv"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.done").value(true))
+            .andExpect(jsonPath("$.ownersRead").value(owners))
+            .andExpect(jsonPath("$.ownersCreated").value(owners))
+            .andExpect(jsonPath("$.rejected").isEmpty());
+
+        List<Owner> colemans = ownerRepository.findByLastNameLowerStartingWith("coleman");
+        assertThat(colemans).hasSize(2);
+        for (Owner coleman : colemans) {
+            assertThat(coleman.getPets()).extracting(Pet::getName).containsExactlyInAnyOrder("Max", "Samantha");
+            assertThat(coleman.getPets()).flatExtracting(Pet::getVisits).hasSize(4);
+        }
+    }
+
+    @Test
+    void importNdjson_rejectsInvalidOwnersAsAWhole() throws Exception {
+        String owners = """
+            {"firstName": "Ada", "lastName": "Quillfeather", "address": "1 Ink Rd.", "city": "Madison", "telephone": "6085550001", \
+            "pets": [{"name": "Comma", "birthDate": "2019-02-03", "type": {"id": 1, "name": "Cat"}, \
+            "visits": [{"date": "2024-01-05", "description": "checkup"}, {"date": "2024-02-05", "description": "dental"}]}]}
+            {"firstName": "Bram", "lastName": "Quillfeather", "address": "2 Ink Rd.", "city": "Madison", "telephone": "not a number"}
+            {"firstName": "Cyd", "lastName": "Quillfeather", "address": "3 Ink Rd.", "city": "Madison", "telephone": "6085550003", \
+            "pets": [{"name": "Dash", "birthDate": "2020-02-03", "type": {"id": 99, "name": "dragon"}}]}
+            {"firstName": "Dot", "lastName": "Quillfeather", "address": "4 Ink Rd.", "city": "Madison", "telephone": "6085550004"}
+            """;
+
+        String progress = mockMvc.perform(post("/api/owners/import")
+                .content(owners)
+                .contentType(MediaType.APPLICATION_NDJSON_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(jsonPath("$.ownersRead").value(4))
+            .andExpect(jsonPath("$.ownersCreated").value(2))
+            .andExpect(jsonPath("$.petsCreated").value(1))
+            .andExpect(jsonPath("$.visitsCreated").value(2))
+            .andExpect(jsonPath("$.rejected[*].index").value(org.hamcrest.Matchers.contains(1, 2)))
+            .andExpect(jsonPath("$.rejected[1].errors[0]").value("Unknown pet type: dragon"))
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(progress.lines()).hasSize(1);
+        assertThat(ownerRepository.findByLastNameLowerStartingWith("quillfeather"))
+            .extracting(Owner::getFirstName)
+            .containsExactlyInAnyOrder("Ada", "Dot");
+    }
+
+    @Test
+    void importNdjson_reportsProgressForRejectedOwnersToo() throws Exception {
+        String owners = "{\"firstName\": \"Eve\"}\n".repeat(450);
+
+        String progress = mockMvc.perform(post("/api/owners/import")
+                .content(owners)
+                .contentType(MediaType.APPLICATION_NDJSON_VALUE))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : progress.lines().toList()) {
+            lines.add(mapper.readTree(line));
+        }
+        assertThat(lines).extracting(line -> line.get("ownersRead").asInt()).containsExactly(200, 400, 450);
+        assertThat(lines).extracting(line -> line.get("rejected").size()).containsExactly(200, 200, 50);
+        assertThat(lines).extracting(line -> line.get("done").asBoolean()).containsExactly(false, false, true);
+    }
+
+    @Test
+    void importNdjson_stopsAtMalformedInput() throws Exception {
+        mockMvc.perform(post("/api/owners/import")
+                .content("""
+                    {"firstName": "Ada", "lastName": "Quillfeather", "address": "1 Ink Rd.", "city": "Madison", "telephone": "6085550001"}
+                    {"firstName": "Bram",
+                    """)
+                .contentType(MediaType.APPLICATION_NDJSON_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.done").value(true))
+            .andExpect(jsonPath("$.ownersCreated").value(1))
+            .andExpect(jsonPath("$.rejected[0].index").value(1))
+            .andExpect(jsonPath("$.rejected[0].errors[0]").value(org.hamcrest.Matchers.startsWith("Malformed input")));
+    }
+
+    private String exportCsv() throws Exception {
+        var asyncResult = mockMvc.perform(get("/api/owners").accept("text/csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(asyncResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andReturn().getResponse().getContentAsString();
+    }
 }
@@ -0,0 +1,352 @@
+package org.springframework.samples.petclinic.rest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.model.Vet;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.repository.PetTypeRepository;
+import org.springframework.samples.petclinic.repository.SpecialtyRepository;
+import org.springframework.samples.petclinic.repository.VetRepository;
+import org.springframework.samples.petclinic.search.SearchIndex;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Every endpoint of the owner, pet, visit, vet, specialty and pet type controllers has a budget of SQL statements
+ * it may prepare, measured on owners with many pets and visits: a lazy association that gets loaded one by one
+ * (an N+1) exceeds it. An endpoint without a budget fails {@link #everyEndpointHasABudget()}; variants of an
+ * endpoint that read differently (filters, cursors, conditional requests) get budgets of their own.
+ * <p>
+ * Not @Transactional, like {@link SqlStatementCountTest}, which covers the second-level cache and batching: the
+ * dataset is committed once and removed afterwards, reference data is read from a cold second-level cache.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = {"OWNER_ADMIN", "VET_ADMIN"})
+@Import(StatementCountingDataSource.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    static final String LAST_NAME = "Budgetowner";
+    static final String NAME = "budgeted";
+    static final int OWNERS = 5;
+    static final int PETS_PER_OWNER = 20;
+    static final int VISITS_PER_PET = 10;
+
+    static final Set<Class<?>> CONTROLLERS = Set.of(OwnerRestController.class, OwnerBulkRestController.class,
+        PetRestController.class, VisitRestController.class, VetRestController.class, SpecialtyRestController.class,
+        PetTypeRestController.class);
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    PetTypeRepository petTypeRepository;
+
+    @Autowired
+    SpecialtyRepository specialtyRepository;
+
+    @Autowired
+    VetRepository vetRepository;
+
+    @Autowired
+    StatementCountingDataSource dataSource;
+
+    @Autowired
+    SerializedResponseCache responseCache;
+
+    @Autowired
+    SearchIndex searchIndex;
+
+    StatementBudget budget;
+
+    Owner owner;
+
+    /**
+     * @param endpoint the controller method, as {@code SimpleClassName#method}
+     * @param request  builds the request, creating what it changes or deletes first
+     */
+    record Budget(String endpoint, long maxStatements, Request request) {
+
+        @Override
+        public String toString() {
+            return endpoint + " <= " + maxStatements;
+        }
+    }
+
+    interface Request {
+        RequestBuilder build(QueryBudgetTest test) throws Exception;
+    }
+
+    Stream<Budget> budgets() {
+        return Stream.of(
+            new Budget("OwnerRestController#listOwners", 1, test -> get("/api/owners")),
+            new Budget("OwnerRestController#listOwners", 1, test -> get("/api/owners?lastName={lastName}", LAST_NAME)),
+            new Budget("OwnerRestController#listOwnerSummaries", 1, test -> get("/api/owners?view=summary")),
+            new Budget("OwnerRestController#listOwnersPage", 2, test -> get("/api/owners?size=3")),
+            new Budget("OwnerRestController#listOwnersPage", 2, test -> get("/api/owners?size=3&cursor={cursor}",
+                KeysetCursor.of(LAST_NAME, test.ownerId()).encode())),
+            // a single query through R2DBC, see ReactiveOwnerRepository: nothing may fall back to JPA or JDBC
+            new Budget("OwnerRestController#streamOwners", 0, test -> get("/api/owners").accept(MediaType.APPLICATION_NDJSON)),
+            new Budget("OwnerRestController#getOwner", 2, test -> get("/api/owners/{id}", test.ownerId())),
+            // the latest visits of all pets in one query, read from a cold cache and past its visitsPerPet
+            new Budget("OwnerRestController#getOwner", 3,
+                test -> get("/api/owners/{id}?visits=latest:3", test.storeOwner().getId())),
+            new Budget("OwnerRestController#getOwner", 3,
+                test -> get("/api/owners/{id}?visits=latest:{count}", test.ownerId(), LatestVisits.MAX_COUNT)),
+            new Budget("OwnerRestController#addOwner", 1, test -> json(post("/api/owners"), ownerJson())),
+            new Budget("OwnerRestController#updateOwner", 2, test -> json(put("/api/owners/{id}", test.ownerId()), ownerJson())),
+            new Budget("OwnerRestController#deleteOwner", 4, test -> delete("/api/owners/{id}", test.storeOwner().getId())),
+            new Budget("OwnerRestController#addPetToOwner", 2,
+                test -> json(post("/api/owners/{id}/pets", test.ownerId()), petJson())),
+            new Budget("OwnerRestController#updateOwnersPet", 2,
+                test -> json(put("/api/owners/{id}/pets/{petId}", test.ownerId(), test.petId()), petJson())),
+            new Budget("OwnerRestController#addVisitToOwner", 2,
+                test -> json(post("/api/owners/{id}/pets/{petId}/visits", test.ownerId(), test.petId()), visitJson())),
+            new Budget("OwnerRestController#getOwnersPet", 1,
+                test -> get("/api/owners/{id}/pets/{petId}", test.ownerId(), test.petId())),
+            new Budget("OwnerBulkRestController#exportOwnersCsv", 1, test -> get("/api/owners").accept("text/csv")),
+            // grows with the rows imported, by one JDBC batch (and at most one sequence call) per 50 rows of a table
+            new Budget("OwnerBulkRestController#importOwners", 26, test -> post("/api/owners/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ownerImportJson().repeat(OWNERS))),
+
+            new Budget("PetRestController#listPets", 1, test -> get("/api/pets")),
+            new Budget("PetRestController#getPet", 2, test -> get("/api/pets/{id}", test.petId())),
+            new Budget("PetRestController#updatePet", 2, test -> json(put("/api/pets/{id}", test.petId()), petJson())),
+            new Budget("PetRestController#deletePet", 3,
+                test -> delete("/api/pets/{id}", test.storeOwner().getPets().get(0).getId())),
+
+            new Budget("VisitRestController#listVisits", 1, test -> get("/api/visits")),
+            new Budget("VisitRestController#listVisitsPage", 1,
+                test -> get("/api/visits?size=50&ownerId={id}&from=2000-01-01", test.ownerId())),
+            new Budget("VisitRestController#getVisit", 2, test -> get("/api/visits/{id}", test.visitId())),
+            new Budget("VisitRestController#addVisit", 1,
+                test -> json(post("/api/visits"), "{\"petId\": %d, \"description\": \"%s\"}".formatted(test.petId(), NAME))),
+            new Budget("VisitRestController#importVisits", 4, test -> post("/api/visits/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"petId\": %d, \"description\": \"%s\"}\n".formatted(test.petId(), NAME).repeat(100))),
+            new Budget("VisitRestController#updateVisit", 3, test -> json(put("/api/visits/{id}", test.visitId()), visitJson())),
+            new Budget("VisitRestController#deleteVisit", 2, test -> delete("/api/visits/{id}", test.storeVisit())),
+
+            new Budget("VetRestController#listVets", 3, test -> get("/api/vets")),
+            // a single query through R2DBC, see ReactiveVetRepository
+            new Budget("VetRestController#streamVets", 0, test -> get("/api/vets").accept(MediaType.APPLICATION_NDJSON)),
+            new Budget("VetRestController#getVet", 2, test -> get("/api/vets/3")),
+            new Budget("VetRestController#addVet", 3, test -> json(post("/api/vets"), vetJson())),
+            new Budget("VetRestController#updateVet", 6, test -> json(put("/api/vets/{id}", test.storeVet()), vetJson())),
+            new Budget("VetRestController#deleteVet", 3, test -> delete("/api/vets/{id}", test.storeVet())),
+
+            new Budget("SpecialtyRestController#listSpecialties", 2, test -> get("/api/specialties")),
+            new Budget("SpecialtyRestController#getSpecialty", 1, test -> get("/api/specialties/1")),
+            new Budget("SpecialtyRestController#addSpecialty", 1, test -> json(post("/api/specialties"), namedJson())),
+            new Budget("SpecialtyRestController#updateSpecialty", 2,
+                test -> json(put("/api/specialties/{id}", test.create("/api/specialties", namedJson())), namedJson())),
+            new Budget("SpecialtyRestController#deleteSpecialty", 2,
+                test -> delete("/api/specialties/{id}", test.create("/api/specialties", namedJson()))),
+
+            new Budget("PetTypeRestController#listPetTypes", 2, test -> get("/api/pettypes")),
+            new Budget("PetTypeRestController#getPetType", 1, test -> get("/api/pettypes/1")),
+            new Budget("PetTypeRestController#addPetType", 1, test -> json(post("/api/pettypes"), namedJson())),
+            new Budget("PetTypeRestController#updatePetType", 2, test -> {
+                int id = test.create("/api/pettypes", namedJson());
+                return json(put("/api/pettypes/{id}", id), "{\"id\": %d, \"name\": \"%s\"}".formatted(id, NAME));
+            }),
+            new Budget("PetTypeRestController#deletePetType", 2,
+                test -> delete("/api/pettypes/{id}", test.create("/api/pettypes", namedJson())))
+        );
+    }
+
+    @BeforeAll
+    void storeOwnersWithManyPetsAndVisits() {
+        owner = storeOwner();
+        for (int i = 1; i < OWNERS; i++) {
+            storeOwner();
+        }
+    }
+
+    @AfterAll
+    void removeStoredData() {
+        jdbcTemplate.update("DELETE FROM visits WHERE description = ?", NAME);
+        jdbcTemplate.update("DELETE FROM visits WHERE pet_id IN (SELECT id FROM pets WHERE name = ?)", NAME);
+        jdbcTemplate.update("DELETE FROM pets WHERE name = ?", NAME);
+        jdbcTemplate.update("DELETE FROM owners WHERE last_name = ?", LAST_NAME);
+        jdbcTemplate.update("DELETE FROM vet_specialties WHERE vet_id IN (SELECT id FROM vets WHERE last_name = ?)", NAME);
+        jdbcTemplate.update("DELETE FROM vets WHERE last_name = ?", NAME);
+        jdbcTemplate.update("DELETE FROM specialties WHERE name = ?", NAME);
+        jdbcTemplate.update("DELETE FROM types WHERE name = ?", NAME);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        responseCache.clear();
+        searchIndex.rebuild();
+    }
+
+    @BeforeEach
+    void coldCaches() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        responseCache.clear();
+        budget = new StatementBudget(mockMvc, dataSource, entityManagerFactory);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("budgets")
+    void endpointStaysWithinItsStatementBudget(Budget endpointBudget) throws Exception {
+        MvcResult result = budget.perform(endpointBudget.request().build(this), endpointBudget.maxStatements());
+
+        // see storeVet(), the statement budget is checked all the same
+        assumeFalse(endpointBudget.endpoint().equals("VetRestController#addVet") && result.getResponse().getStatus() == 500);
+        assertThat(result.getResponse().getStatus()).as(result.getResponse().getContentAsString()).isBetween(200, 299);
+    }
+
+    @Test
+    void everyEndpointHasABudget(@Autowired @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
+        Set<String> endpoints = handlerMapping.getHandlerMethods().values().stream()
+            .filter(handlerMethod -> CONTROLLERS.contains(handlerMethod.getBeanType()))
+            .map(QueryBudgetTest::endpoint)
+            .collect(Collectors.toSet());
+
+        assertThat(budgets().map(Budget::endpoint).distinct()).containsExactlyInAnyOrderElementsOf(endpoints);
+    }
+
+    private static String endpoint(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+    }
+
+    int ownerId() {
+        return owner.getId();
+    }
+
+    int petId() {
+        return owner.getPets().get(0).getId();
+    }
+
+    int visitId() {
+        return owner.getPets().get(0).getVisits().iterator().next().getId();
+    }
+
+    Owner storeOwner() {
+        return transactionTemplate.execute(status -> {
+            PetType cat = petTypeRepository.findById(1).orElseThrow();
+            Owner stored = new Owner().setFirstName("Bea").setLastName(LAST_NAME).setAddress("1 Budget Rd.")
+                .setCity("Madison").setTelephone("6085550000");
+            for (int p = 0; p < PETS_PER_OWNER; p++) {
+                Pet pet = new Pet().setName(NAME).setBirthDate(LocalDate.of(2020, 1, 1)).setType(cat);
+                for (int v = 0; v < VISITS_PER_PET; v++) {
+                    pet.addVisit(new Visit().setDate(LocalDate.of(2024, 1, 1).plusDays(v)).setDescription(NAME));
+                }
+                stored.addPet(pet);
+            }
+            return ownerRepository.saveAll(List.of(stored)).get(0);
+        });
+    }
+
+    /**
+     * Through the repository: POST /api/vets cannot create vets while VetDto's name patterns do not compile.
+     */
+    int storeVet() {
+        return transactionTemplate.execute(status -> {
+            Vet vet = new Vet().setFirstName("Bea").setLastName(NAME);
+            vet.addSpecialty(specialtyRepository.findById(1).orElseThrow());
+            vetRepository.save(vet);
+            return vet.getId();
+        });
+    }
+
+    int storeVisit() throws Exception {
+        return create("/api/visits", "{\"petId\": %d, \"description\": \"%s\"}".formatted(petId(), NAME));
+    }
+
+    /**
+     * Creates through the API, as the budgets of the write endpoints cover what they create themselves.
+     */
+    int create(String uri, String json) throws Exception {
+        String location = mockMvc.perform(json(post(uri), json)).andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        assertThat(location).as("Location of POST " + uri).isNotNull();
+        return Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private static RequestBuilder json(MockHttpServletRequestBuilder request, String content) {
+        return request.contentType(MediaType.APPLICATION_JSON).content(content);
+    }
+
+    private static String ownerJson() {
+        return """
+            {"firstName": "Bea", "lastName": "%s", "address": "1 Budget Rd.", "city": "Madison", "telephone": "6085550000"}
+            """.formatted(LAST_NAME);
+    }
+
+    private static String ownerImportJson() {
+        String visit = "{\"date\": \"2024-01-01\", \"description\": \"%s\"}".formatted(NAME);
+        String pet = "{\"name\": \"%s\", \"birthDate\": \"2020-01-01\", \"type\": {\"id\": 1, \"name\": \"cat\"}, \"visits\": [%s]}"
+            .formatted(NAME, String.join(", ", Collections.nCopies(VISITS_PER_PET, visit)));
+        return ownerJson().strip().replaceFirst("}$", ", \"pets\": [%s]}".formatted(
+            String.join(", ", Collections.nCopies(PETS_PER_OWNER, pet)))) + "\n";
+    }
+
+    private static String petJson() {
+        return "{\"name\": \"%s\", \"birthDate\": \"2020-01-01\", \"type\": {\"id\": 1, \"name\": \"cat\"}}".formatted(NAME);
+    }
+
+    private static String visitJson() {
+        return "{\"date\": \"2024-01-01\", \"description\": \"%s\"}".formatted(NAME);
+    }
+
+    private static String vetJson() {
+        return "{\"firstName\": \"Bea\", \"lastName\": \"%s\", \"specialties\": [{\"id\": 1, \"name\": \"radiology\"}]}"
+            .formatted(NAME);
+    }
+
+    private static String namedJson() {
+        return "{\"name\": \"%s\"}".formatted(NAME);
+    }
+}
@@ -0,0 +1,136 @@
+package org.springframework.samples.petclinic.rest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.SqlStatementCountFilter;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pets and owners read with {@code visits=latest:N}, against the seeded visits of Jean Coleman's pets
+ * (Samantha: visits 1 and 4, Max: visits 2 and 3).
+ * <p>
+ * Not transactional: the recent-visits cache only takes writes in once they are committed. Visits added here
+ * are deleted again through the API.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "OWNER_ADMIN")
+class RecentVisitsTest {
+
+    private static final int OWNER_ID = 6;
+    private static final int SAMANTHA = 7;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void getPet_latestVisits_mostRecentFirst() throws Exception {
+        mockMvc.perform(get("/api/pets/{id}?visits=latest:1", SAMANTHA))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Samantha"))
+            .andExpect(jsonPath("$.visits[*].id").value(contains(4)));
+        mockMvc.perform(get("/api/owners/{ownerId}/pets/{petId}?visits=latest:5", OWNER_ID, SAMANTHA))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.visits[*].id").value(contains(4, 1)));
+    }
+
+    @Test
+    void getOwner_latestVisits_perPet() throws Exception {
+        mockMvc.perform(get("/api/owners/{id}?visits=latest:1", OWNER_ID))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pets[*].name").value(contains("Max", "Samantha")))
+            .andExpect(jsonPath("$.pets[0].visits[*].id").value(contains(3)))
+            .andExpect(jsonPath("$.pets[1].visits[*].id").value(contains(4)));
+    }
+
+    @Test
+    void getPet_latestVisits_followsAddedAndDeletedVisits() throws Exception {
+        // warm the cache
+        mockMvc.perform(get("/api/pets/{id}?visits=latest:2", SAMANTHA))
+            .andExpect(jsonPath("$.visits[*].id").value(contains(4, 1)));
+
+        String location = mockMvc.perform(post("/api/visits")
+                .content("{\"petId\": " + SAMANTHA + ", \"date\": \"2014-02-01\", \"description\": \"checkup\"}")
+                .contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        int added = Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+        mockMvc.perform(get("/api/pets/{id}?visits=latest:2", SAMANTHA))
+            .andExpect(jsonPath("$.visits[*].id").value(contains(added, 4)));
+
+        mockMvc.perform(delete("/api/visits/{id}", added))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/pets/{id}?visits=latest:2", SAMANTHA))
+            .andExpect(jsonPath("$.visits[*].id").value(contains(4, 1)));
+    }
+
+    @Test
+    void getPet_latestVisits_staysCachedWhenAVisitIsAdded() throws Exception {
+        mockMvc.perform(get("/api/pets/{id}?visits=latest:2", SAMANTHA));
+        String warm = mockMvc.perform(get("/api/pets/{id}?visits=latest:2", SAMANTHA))
+            .andReturn().getResponse().getHeader(SqlStatementCountFilter.HEADER);
+
+        String location = mockMvc.perform(post("/api/visits")
+                .content("{\"petId\": " + SAMANTHA + ", \"date\": \"2013-01-05\", \"description\": \"booster\"}")
+                .contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        int added = Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+        try {
+            // merged into the cached visits, not read again
+            mockMvc.perform(get("/api/pets/{id}?visits=latest:2", SAMANTHA))
+                .andExpect(jsonPath("$.visits[*].id").value(contains(added, 4)))
+                .andExpect(header().string(SqlStatementCountFilter.HEADER, warm));
+        } finally {
+            mockMvc.perform(delete("/api/visits/{id}", added))
+                .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void getPet_latestVisits_followsAnAddedVisitWithoutDate() throws Exception {
+        // warm the cache
+        mockMvc.perform(get("/api/pets/{id}?visits=latest:5", SAMANTHA))
+            .andExpect(jsonPath("$.visits[*].id").value(contains(4, 1)));
+
+        String location = mockMvc.perform(post("/api/visits")
+                .content("{\"petId\": " + SAMANTHA + ", \"description\": \"walk-in\"}")
+                .contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        int added = Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+        try {
+            // where undated visits sort is up to the database
+            mockMvc.perform(get("/api/pets/{id}?visits=latest:5", SAMANTHA))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.visits[*].id").value(containsInAnyOrder(added, 4, 1)));
+        } finally {
+            mockMvc.perform(delete("/api/visits/{id}", added))
+                .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void getPet_rejectsMalformedVisitsParameter() throws Exception {
+        mockMvc.perform(get("/api/pets/{id}?visits=all", SAMANTHA))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/pets/{id}?visits=latest:0", SAMANTHA))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/pets/{id}?visits=latest:{count}", SAMANTHA, LatestVisits.MAX_COUNT + 1))
+            .andExpect(status().isBadRequest());
+    }
+}
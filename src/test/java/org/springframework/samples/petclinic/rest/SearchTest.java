@@ -0,0 +1,102 @@
+package org.springframework.samples.petclinic.rest;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not @Transactional on purpose: the index only follows committed changes.
+ * Ids refer to the seeded data: owner 6 (Jean Coleman) has pet 7 (Samantha), visited for a 'rabies shot'.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "OWNER_ADMIN")
+class SearchTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void findsSeededOwnersPetsAndVisitsDespiteTypos() throws Exception {
+        mockMvc.perform(get("/api/search?q=jean colmean"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].kind").value("OWNER"))
+            .andExpect(jsonPath("$[0].id").value(6))
+            .andExpect(jsonPath("$[0].title").value("Jean Coleman"));
+        mockMvc.perform(get("/api/search?q=samnatha"))
+            .andExpect(jsonPath("$[0].kind").value("PET"))
+            .andExpect(jsonPath("$[0].id").value(7))
+            .andExpect(jsonPath("$[0].ownerId").value(6));
+        mockMvc.perform(get("/api/search?q=rabies&limit=1"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].kind").value("VISIT"))
+            .andExpect(jsonPath("$[0].petId").isNumber())
+            .andExpect(jsonPath("$[0].ownerId").value(6));
+    }
+
+    @Test
+    void followsOwnerPetAndVisitWrites() throws Exception {
+        String location = mockMvc.perform(post("/api/owners")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"firstName": "Mycroft", "lastName": "Wainwright", "address": "Pall Mall 1",
+                     "city": "Westminster", "telephone": "4412345678"}
+                    """))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getHeader("Location");
+        int ownerId = Integer.parseInt(location.substring(location.lastIndexOf('/') + 1));
+        try {
+            mockMvc.perform(get("/api/search?q=wainwright"))
+                .andExpect(jsonPath("$[*].id", hasItem(ownerId)));
+
+            mockMvc.perform(post("/api/owners/" + ownerId + "/pets")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\": \"Zanzibar\", \"birthDate\": \"2020-01-01\", \"type\": {\"id\": 1, \"name\": \"cat\"}}"))
+                .andExpect(status().isCreated());
+            mockMvc.perform(get("/api/search?q=zanzibar"))
+                .andExpect(jsonPath("$[0].kind").value("PET"))
+                .andExpect(jsonPath("$[0].ownerId").value(ownerId));
+            int petId = JsonPath.read(mockMvc.perform(get("/api/search?q=zanzibar"))
+                .andReturn().getResponse().getContentAsString(), "$[0].id");
+
+            mockMvc.perform(post("/api/owners/" + ownerId + "/pets/" + petId + "/visits")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"date\": \"2024-01-01\", \"description\": \"quarterly grooming\"}"))
+                .andExpect(status().isCreated());
+            mockMvc.perform(get("/api/search?q=grooming"))
+                .andExpect(jsonPath("$[0].kind").value("VISIT"))
+                .andExpect(jsonPath("$[0].ownerId").value(ownerId));
+
+            mockMvc.perform(put("/api/owners/" + ownerId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("""
+                        {"firstName": "Mycroft", "lastName": "Abernathy", "address": "Pall Mall 1",
+                         "city": "Westminster", "telephone": "4412345678"}
+                        """))
+                .andExpect(status().isOk());
+            mockMvc.perform(get("/api/search?q=wainwright"))
+                .andExpect(jsonPath("$[*].id", not(hasItem(ownerId))));
+            mockMvc.perform(get("/api/search?q=abernathy"))
+                .andExpect(jsonPath("$[*].id", hasItem(ownerId)));
+        } finally {
+            mockMvc.perform(delete("/api/owners/" + ownerId)).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/search?q=mycroft")).andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/search?q=zanzibar")).andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/search?q=grooming")).andExpect(jsonPath("$.length()").value(0));
+    }
+}
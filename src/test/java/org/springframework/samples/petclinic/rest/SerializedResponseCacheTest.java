@@ -0,0 +1,114 @@
+package org.springframework.samples.petclinic.rest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not @Transactional on purpose: cached renderings are only replaced once a write has changed the version stamps.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = {"OWNER_ADMIN", "VET_ADMIN"})
+class SerializedResponseCacheTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void servesGzipToClientsAcceptingIt() throws Exception {
+        for (String uri : new String[]{"/api/pettypes", "/api/specialties", "/api/vets"}) {
+            byte[] plain = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+            byte[] gzipped = mockMvc.perform(get(uri).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+            assertThat(gunzip(gzipped)).isEqualTo(plain);
+        }
+    }
+
+    @Test
+    void tagsTheGzipVariantSeparately() throws Exception {
+        String plainTag = mockMvc.perform(get("/api/pettypes"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipTag = mockMvc.perform(get("/api/pettypes").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(gzipTag).isEqualTo(SerializedResponseCache.gzipTag(plainTag)).endsWith("-gz\"");
+
+        mockMvc.perform(get("/api/pettypes").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, gzipTag));
+        mockMvc.perform(get("/api/pettypes").header(HttpHeaders.IF_NONE_MATCH, plainTag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/pettypes").header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/api/pettypes").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, plainTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void writesReplaceTheCachedRendering() throws Exception {
+        mockMvc.perform(get("/api/specialties")).andExpect(jsonPath("$[?(@.id == 3)].name").value("dentistry"));
+        try {
+            renameSpecialty("odontology");
+
+            mockMvc.perform(get("/api/specialties"))
+                .andExpect(jsonPath("$[?(@.id == 3)].name").value("odontology"));
+            mockMvc.perform(get("/api/vets"))
+                .andExpect(jsonPath("$[?(@.id == 3)].specialties[*].name").value(hasItem("odontology")));
+        } finally {
+            renameSpecialty("dentistry");
+        }
+        mockMvc.perform(get("/api/specialties")).andExpect(jsonPath("$[?(@.id == 3)].name").value("dentistry"));
+    }
+
+    @Test
+    void honoursRefusedOrMissingGzip() {
+        assertThat(SerializedResponseCache.acceptsGzip(null)).isFalse();
+        assertThat(SerializedResponseCache.acceptsGzip("identity")).isFalse();
+        assertThat(SerializedResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(SerializedResponseCache.acceptsGzip("deflate, GZIP")).isTrue();
+        assertThat(SerializedResponseCache.acceptsGzip("*;q=0.5")).isTrue();
+    }
+
+    private void renameSpecialty(String name) throws Exception {
+        mockMvc.perform(put("/api/specialties/3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": 3, \"name\": \"%s\"}".formatted(name)))
+            .andExpect(status().is2xxSuccessful());
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
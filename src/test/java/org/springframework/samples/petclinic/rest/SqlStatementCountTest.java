@@ -0,0 +1,161 @@
+package org.springframework.samples.petclinic.rest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.SqlStatementCountFilter;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements that caching and batching save: warm second-level cache hits, conditional GETs answered from versions
+ * and JDBC batches of imports. The statement budget of every endpoint is declared in {@link QueryBudgetTest}.
+ * <p>
+ * Not @Transactional on purpose: each request must load what it maps through its own entity graph,
+ * otherwise it fails with a LazyInitializationException or shows up as extra statements.
+ * Ids refer to the seeded data: owner 6 (Jean Coleman) has pets 7 and 8 with two visits each,
+ * pet type 3 is 'lizard'.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser(roles = {"OWNER_ADMIN", "VET_ADMIN"})
+class SqlStatementCountTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    SerializedResponseCache responseCache;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void resetStatisticsAndCaches() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        responseCache.clear();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"/api/pettypes", "/api/specialties", "/api/vets", "/api/pettypes/1", "/api/specialties/1"})
+    void referenceDataIsServedFromSecondLevelCacheOnceWarm(String uri) throws Exception {
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @ParameterizedTest(name = "{0} -> {1} statement(s)")
+    @CsvSource({
+        "/api/owners/6, 1",
+        "/api/pets/7, 1",
+        "/api/visits/1, 1",
+    })
+    void conditionalGetAnswersNotModifiedFromVersionsOnly(String uri, long expectedStatements) throws Exception {
+        String etag = mockMvc.perform(get(uri))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().longValue(SqlStatementCountFilter.HEADER, expectedStatements));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedStatements);
+    }
+
+    @Test
+    void writeThroughEndpointEvictsCachedReferenceData() throws Exception {
+        mockMvc.perform(get("/api/pettypes")).andExpect(status().isOk());
+        try {
+            renamePetType(3, "gecko");
+
+            mockMvc.perform(get("/api/pettypes"))
+                .andExpect(jsonPath("$[?(@.id == 3)].name").value("gecko"));
+            mockMvc.perform(get("/api/pettypes/3"))
+                .andExpect(jsonPath("$.name").value("gecko"));
+        } finally {
+            renamePetType(3, "lizard");
+        }
+    }
+
+    @Test
+    void visitImportIsWrittenInJdbcBatches() throws Exception {
+        String visits = "{\"petId\": 7, \"date\": \"2024-01-01\", \"description\": \"batched import\"}\n".repeat(120);
+        try {
+            mockMvc.perform(post("/api/visits/import")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content(visits))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(120));
+
+            // one pet lookup, one sequence call per block of 50 ids and one statement per JDBC batch of 50 inserts
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1 + 3 + 3);
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        } finally {
+            jdbcTemplate.update("DELETE FROM visits WHERE description = 'batched import'");
+        }
+    }
+
+    @Test
+    void ownerImportIsWrittenInJdbcBatches() throws Exception {
+        String owner = """
+            {"firstName": "Bea", "lastName": "Batchley", "address": "1 Bulk Rd.", "city": "Madison", "telephone": "6085550000", \
+            "pets": [{"name": "Bundle", "birthDate": "2020-01-01", "type": {"id": 1, "name": "cat"}, \
+            "visits": [{"date": "2024-01-01", "description": "batched"}, {"date": "2024-02-01", "description": "batched"}]}]}
+            """;
+        try {
+            String progress = mockMvc.perform(post("/api/owners/import")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content(owner.repeat(250)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+            // one progress line per chunk of 200 owners, then the final one
+            assertThat(progress.lines()).hasSize(2);
+            assertThat(progress.lines().toList().get(1)).contains("\"ownersCreated\":250", "\"visitsCreated\":500", "\"done\":true");
+            // one pet type lookup; per chunk one sequence call and one JDBC batch per 50 owners, pets and visits
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1 + 2 * (4 + 4 + 8) + 2 * (1 + 1 + 2));
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(250 + 250 + 500);
+        } finally {
+            jdbcTemplate.update("DELETE FROM visits WHERE description = 'batched'");
+            jdbcTemplate.update("DELETE FROM pets WHERE name = 'Bundle'");
+            jdbcTemplate.update("DELETE FROM owners WHERE last_name = 'Batchley'");
+        }
+    }
+
+    private void renamePetType(int petTypeId, String name) throws Exception {
+        mockMvc.perform(put("/api/pettypes/" + petTypeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": %d, \"name\": \"%s\"}".formatted(petTypeId, name)))
+            .andExpect(status().is2xxSuccessful());
+    }
+}
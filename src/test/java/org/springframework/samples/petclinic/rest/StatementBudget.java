@@ -0,0 +1,58 @@
+package org.springframework.samples.petclinic.rest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+/**
+ * Performs a request and fails when it runs more SQL statements than its budget, counted by a
+ * {@link StatementCountingDataSource}. Asynchronous responses are waited for, so the statements of a streamed
+ * body are counted as well.
+ * <p>
+ * The count is global: requests must not run concurrently with other database work.
+ */
+class StatementBudget {
+
+    private final MockMvc mockMvc;
+    private final StatementCountingDataSource dataSource;
+    private final Statistics statistics;
+
+    StatementBudget(MockMvc mockMvc, StatementCountingDataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.mockMvc = mockMvc;
+        this.dataSource = dataSource;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    /**
+     * @return the result of the (completed) request, to check its status and content
+     */
+    MvcResult perform(RequestBuilder request, long maxStatements) throws Exception {
+        dataSource.resetStatementCount();
+        statistics.clear();
+        MvcResult started = mockMvc.perform(request).andReturn();
+        MvcResult result = started.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(started)).andReturn() : started;
+        assertThat(dataSource.getStatementCount())
+            .as(() -> describe(result))
+            .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+
+    /**
+     * Hibernate's view of the request: fetches of single entities or collections are what an N+1 typically looks like.
+     */
+    private String describe(MvcResult result) {
+        return "SQL statements of %s %s (%d entity fetches, %d collection fetches, queries %s)".formatted(
+            result.getRequest().getMethod(), result.getRequest().getRequestURI(),
+            statistics.getEntityFetchCount(), statistics.getCollectionFetchCount(),
+            Arrays.toString(statistics.getQueries()));
+    }
+}
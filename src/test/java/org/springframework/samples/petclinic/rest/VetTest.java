@@ -12,13 +12,19 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.model.Vet;
 import org.springframework.samples.petclinic.repository.VetRepository;
+import org.springframework.samples.petclinic.rest.dto.SpecialtyDto;
 import org.springframework.samples.petclinic.rest.dto.VetDto;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -88,6 +94,26 @@ public class VetTest {
             .contains(Assertions.tuple(vetId, "James", "Carter"));
     }
 
+    @Test
+    void streamAll_writesOneVetPerLineWithSpecialties() throws Exception {
+        var asyncResult = mockMvc.perform(get("/api/vets").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        List<VetDto> vets = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            vets.add(mapper.readValue(line, VetDto.class));
+        }
+        assertThat(vets).isSortedAccordingTo(Comparator.comparing(VetDto::getId));
+        VetDto douglas = vets.stream().filter(v -> v.getLastName().equals("Douglas")).findFirst().orElseThrow();
+        assertThat(douglas.getSpecialties()).extracting(SpecialtyDto::getName).containsExactly("dentistry", "surgery");
+    }
+
     @Test
     void create_ok() throws Exception {
         VetDto newVet = new VetDto();
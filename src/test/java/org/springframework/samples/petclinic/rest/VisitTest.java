@@ -24,10 +24,13 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -201,4 +204,101 @@ public class VisitTest {
             assertThat(visit.getDate()).isNotNull();
         });
     }
+
+    @Test
+    void import_array_reports_each_visit() throws Exception {
+        String visits = """
+            [
+              {"petId": %d, "date": "2024-05-01", "description": "checkup"},
+              {"petId": %d, "date": "2024-05-02"},
+              {"petId": 99999, "date": "2024-05-03", "description": "checkup"},
+              {"petId": %d, "date": "not a date", "description": "checkup"},
+              {"petId": %d, "date": "2024-05-04", "description": "dental cleaning"}
+            ]
+            """.formatted(petId, petId, petId, petId);
+
+        mockMvc.perform(post("/api/visits/import")
+                .content(visits)
+                .contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(5))
+            .andExpect(jsonPath("$[*].status").value(org.hamcrest.Matchers.contains(
+                "CREATED", "REJECTED", "REJECTED", "REJECTED", "CREATED")))
+            .andExpect(jsonPath("$[1].errors[0]").value(org.hamcrest.Matchers.startsWith("Description")))
+            .andExpect(jsonPath("$[2].errors[0]").value("Pet 99999 not found"))
+            .andExpect(jsonPath("$[0].id").isNumber());
+
+        assertThat(visitRepository.findByPetId(petId))
+            .extracting(Visit::getDescription)
+            .contains("checkup", "dental cleaning");
+    }
+
+    @Test
+    void import_ndjson_ok() throws Exception {
+        String visits = """
+            {"petId": %d, "date": "2024-06-01", "description": "vaccination"}
+            {"petId": %d, "date": "2024-06-02", "description": "vaccination"}
+            """.formatted(petId, petId);
+
+        mockMvc.perform(post("/api/visits/import")
+                .content(visits)
+                .contentType(MediaType.APPLICATION_NDJSON_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].status").value(org.hamcrest.Matchers.contains("CREATED", "CREATED")));
+
+        assertThat(visitRepository.findByPetId(petId)).hasSize(3);
+    }
+
+    @Test
+    void getAllPaged_walksAPetsVisitsInTheDateRangeOnceInDateOrder() throws Exception {
+        Pet pet = petRepository.findById(petId).orElseThrow();
+        List<Integer> expected = new ArrayList<>();
+        for (int day = 1; day <= 7; day++) {
+            // two visits a day, to page through visits sharing a date
+            for (int i = 0; i < 2; i++) {
+                Visit visit = visitRepository.save(new Visit().setPet(pet).setDate(LocalDate.of(2024, 1, day)).setDescription("checkup"));
+                if (day >= 2 && day <= 6) {
+                    expected.add(visit.getId());
+                }
+            }
+        }
+
+        List<VisitDto> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            String uri = "/api/visits?size=3&petId=" + petId + "&from=2024-01-02&to=2024-01-06"
+                + (cursor == null ? "" : "&cursor=" + cursor);
+            var response = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+            VisitDto[] page = mapper.readValue(response.getContentAsString(), VisitDto[].class);
+            assertThat(page.length).isLessThanOrEqualTo(3);
+            walked.addAll(List.of(page));
+            cursor = response.getHeader(OwnerRestController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(walked).extracting(VisitDto::getId).containsExactlyElementsOf(expected);
+        assertThat(walked).allSatisfy(visit -> assertThat(visit.getPetId()).isEqualTo(petId));
+    }
+
+    @Test
+    void getAllPaged_byOwner_onlyListsTheOwnersVisits() throws Exception {
+        int ownerId = petRepository.findById(petId).orElseThrow().getOwner().getId();
+
+        mockMvc.perform(get("/api/visits?size=10&ownerId=" + ownerId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id").value(org.hamcrest.Matchers.contains(visitId)))
+            .andExpect(header().doesNotExist(OwnerRestController.NEXT_CURSOR_HEADER));
+        mockMvc.perform(get("/api/visits?size=10&ownerId=" + ownerId + "&petId=7"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void getAllPaged_rejectsForgedCursor() throws Exception {
+        String forged = KeysetCursor.of("not a date", 1).encode();
+
+        mockMvc.perform(get("/api/visits?size=3&cursor=" + forged))
+            .andExpect(status().isBadRequest());
+    }
 }
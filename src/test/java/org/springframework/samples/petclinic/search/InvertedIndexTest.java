@@ -0,0 +1,134 @@
+package org.springframework.samples.petclinic.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.search.SearchDocument.Kind;
+import org.springframework.samples.petclinic.search.SearchIndex.Hit;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    InvertedIndex index;
+
+    @BeforeEach
+    void indexSomeDocuments() {
+        index = new InvertedIndex();
+        index.put(owner(1, "George", "Franklin", "Madison", "6085551023"));
+        index.put(owner(6, "Jean", "Coleman", "Monona", "6085552654"));
+        index.put(owner(10, "Carlos", "Estában", "Waunakee", "6085555487"));
+        index.put(new SearchDocument(Kind.PET, 7, 6, 7, "Samantha", List.of("Samantha")));
+        index.put(new SearchDocument(Kind.VISIT, 1, null, 7, "rabies shot", List.of("rabies shot")));
+    }
+
+    @Test
+    void tokenizeFoldsCaseAndAccents() {
+        assertThat(InvertedIndex.tokenize("Estában, O'Neil  608-555")).containsExactly("estaban", "o", "neil", "608", "555");
+    }
+
+    @Test
+    void editDistanceCountsTranspositionsAsOneEdit() {
+        assertThat(InvertedIndex.editDistance("coleman", "coleman", 1)).isZero();
+        assertThat(InvertedIndex.editDistance("colmean", "coleman", 1)).isEqualTo(1);
+        assertThat(InvertedIndex.editDistance("colman", "coleman", 1)).isEqualTo(1);
+        assertThat(InvertedIndex.editDistance("kolmen", "coleman", 1)).isEqualTo(2);
+        assertThat(InvertedIndex.editDistance("franklin", "coleman", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void findsExactPrefixAndMisspelledWords() {
+        assertThat(ids(index.search("coleman", 10))).containsExactly(6);
+        assertThat(ids(index.search("COLE", 10))).containsExactly(6);
+        assertThat(ids(index.search("colmean", 10))).containsExactly(6);
+        assertThat(ids(index.search("samnatha", 10))).containsExactly(7);
+        assertThat(ids(index.search("estaban", 10))).containsExactly(10);
+        assertThat(ids(index.search("6085552654", 10))).containsExactly(6);
+        assertThat(index.search("xyz", 10)).isEmpty();
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void numbersAreOnlyMatchedExactlyOrByPrefix() {
+        assertThat(ids(index.search("608555265", 10))).containsExactly(6);
+        assertThat(index.search("6085552655", 10)).isEmpty();
+        assertThat(index.search("6085552645", 10)).isEmpty();
+    }
+
+    @Test
+    void closestMisspellingsAreKeptWhenTooManyTermsAreNear() {
+        int id = 100;
+        for (char first = 'c'; first <= 'z'; first++) {
+            for (char second = 'c'; second <= 'f'; second++) {
+                index.put(owner(id++, "Ann", "" + first + second + "rtholomew", "Verona", "6085550000"));
+            }
+        }
+        index.put(owner(99, "Ann", "Bartholomex", "Verona", "6085550000"));
+
+        assertThat(ids(index.search("bartholomew", 1))).containsExactly(99);
+        assertThat(index.search("bartholomew", 1000)).hasSize(64);
+    }
+
+    @Test
+    void deletionsReachEveryStringWithinTheEdits() {
+        assertThat(InvertedIndex.deletions("abc", 0)).containsExactly("abc");
+        assertThat(InvertedIndex.deletions("abc", 1)).containsExactlyInAnyOrder("abc", "bc", "ac", "ab");
+        assertThat(InvertedIndex.deletions("abc", 2))
+            .containsExactlyInAnyOrder("abc", "bc", "ac", "ab", "a", "b", "c");
+    }
+
+    @Test
+    void everyWordMustMatch() {
+        assertThat(ids(index.search("jean coleman", 10))).containsExactly(6);
+        assertThat(index.search("jean franklin", 10)).isEmpty();
+    }
+
+    @Test
+    void exactMatchesRankAboveFuzzyOnes() {
+        index.put(owner(2, "Betty", "Davis", "Sun Prairie", "6085551749"));
+        index.put(owner(3, "Eduardo", "Davies", "McFarland", "6085558763"));
+
+        assertThat(ids(index.search("davis", 10))).containsExactly(2, 3);
+    }
+
+    @Test
+    void visitsInheritTheOwnerOfTheirIndexedPet() {
+        assertThat(index.search("rabies", 10))
+            .singleElement()
+            .satisfies(hit -> assertThat(hit.document().ownerId()).isEqualTo(6));
+    }
+
+    @Test
+    void replacedAndRemovedDocumentsAreNoLongerFound() {
+        index.put(owner(6, "Jean", "Smith", "Monona", "6085552654"));
+        assertThat(index.search("coleman", 10)).isEmpty();
+        assertThat(ids(index.search("smith", 10))).containsExactly(6);
+
+        index.remove(new SearchDocument.Key(Kind.OWNER, 6));
+        assertThat(index.search("smith", 10)).isEmpty();
+        assertThat(index.search("jean", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void parallelPutsAreAllIndexed() {
+        InvertedIndex parallel = new InvertedIndex();
+        IntStream.range(0, 10_000).parallel()
+            .forEach(id -> parallel.put(owner(id, "First" + id, "Last" + (id % 100), "City", "608555" + id)));
+
+        assertThat(parallel.size()).isEqualTo(10_000);
+        assertThat(ids(parallel.search("last42", 100))).hasSize(100).allMatch(id -> id % 100 == 42);
+        assertThat(ids(parallel.search("first4242", 1))).containsExactly(4242);
+    }
+
+    private static SearchDocument owner(int id, String firstName, String lastName, String city, String telephone) {
+        return new SearchDocument(Kind.OWNER, id, id, null, firstName + " " + lastName,
+            List.of(firstName, lastName, city, telephone));
+    }
+
+    private static List<Integer> ids(List<Hit> hits) {
+        return hits.stream().map(hit -> hit.document().id()).toList();
+    }
+}
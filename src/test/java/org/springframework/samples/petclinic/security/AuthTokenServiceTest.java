@@ -0,0 +1,74 @@
+package org.springframework.samples.petclinic.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    AuthTokenService tokenService = tokenService(SECRET, NOW);
+
+    private static AuthTokenService tokenService(String secret, Instant now) {
+        return new AuthTokenService(new AuthTokenProperties(secret, Duration.ofMinutes(15)),
+            Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static Authentication duke() {
+        return UsernamePasswordAuthenticationToken.authenticated("duke:the:mascot", null,
+            AuthorityUtils.createAuthorityList("ROLE_OWNER_ADMIN", "ROLE_VET_ADMIN"));
+    }
+
+    @Test
+    void issuedTokenCarriesUsernameAndRoles() {
+        AuthTokenService.IssuedToken issued = tokenService.issue(duke());
+
+        Authentication authentication = tokenService.verify(issued.token());
+
+        assertThat(issued.expiresAt()).isEqualTo(NOW.plus(Duration.ofMinutes(15)));
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getName()).isEqualTo("duke:the:mascot");
+        assertThat(AuthorityUtils.authorityListToSet(authentication.getAuthorities()))
+            .containsExactlyInAnyOrder("ROLE_OWNER_ADMIN", "ROLE_VET_ADMIN");
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = tokenService.issue(duke()).token();
+
+        assertThat(tokenService(SECRET, NOW.plus(Duration.ofMinutes(15))).verify(token)).isNull();
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyOrTamperedWithIsRejected() {
+        String token = tokenService.issue(duke()).token();
+        String otherSecret = Base64.getEncoder().encodeToString(new byte[]{
+            1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32});
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("4102444800:ROLE_ADMIN:duke".getBytes());
+
+        assertThat(tokenService(otherSecret, NOW).verify(token)).isNull();
+        assertThat(tokenService.verify(forgedPayload + token.substring(token.lastIndexOf('.')))).isNull();
+        assertThat(tokenService.verify(token.substring(0, token.length() - 2))).isNull();
+        assertThat(tokenService.verify("not a token")).isNull();
+    }
+
+    @Test
+    void shortSecretIsRefused() {
+        assertThatThrownBy(() -> tokenService(Base64.getEncoder().encodeToString(new byte[16]), NOW))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
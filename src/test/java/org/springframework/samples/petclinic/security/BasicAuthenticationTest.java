@@ -0,0 +1,36 @@
+package org.springframework.samples.petclinic.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "petclinic.security.enable=true")
+@AutoConfigureMockMvc
+class BasicAuthenticationTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void seededAdminIsAuthenticatedAgainstTheUsersTable() throws Exception {
+        mockMvc.perform(get("/api/vets").with(httpBasic("admin", "admin")))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/vets").with(httpBasic("admin", "admin")))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws Exception {
+        mockMvc.perform(get("/api/vets").with(httpBasic("admin", "admin")))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/vets").with(httpBasic("admin", "nimda")))
+            .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,77 @@
+package org.springframework.samples.petclinic.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingAuthenticationProviderTest {
+
+    private static final String USERNAME = "duke";
+    private static final String PASSWORD = "j4va";
+
+    AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+
+    CachingAuthenticationProvider provider = new CachingAuthenticationProvider(delegate,
+        new AuthenticationCacheProperties(Duration.ofMinutes(5), 100));
+
+    @BeforeEach
+    void stubDelegate() {
+        when(delegate.authenticate(any())).thenAnswer(invocation -> checkPassword(invocation.getArgument(0)));
+    }
+
+    private static Authentication checkPassword(Authentication login) {
+        if (!PASSWORD.equals(login.getCredentials())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(USERNAME, null,
+            AuthorityUtils.createAuthorityList("ROLE_OWNER_ADMIN"));
+    }
+
+    @Test
+    void verifiesRepeatedCredentialsOnlyOnce() {
+        Authentication first = provider.authenticate(login(PASSWORD));
+        Authentication second = provider.authenticate(login(PASSWORD));
+
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        verify(delegate, times(1)).authenticate(argThat(auth -> PASSWORD.equals(auth.getCredentials())));
+    }
+
+    @Test
+    void neverCachesRejectedOrDifferentCredentials() {
+        provider.authenticate(login(PASSWORD));
+
+        assertThatThrownBy(() -> provider.authenticate(login("guess"))).isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(login("guess"))).isInstanceOf(BadCredentialsException.class);
+        verify(delegate, times(2)).authenticate(argThat(auth -> "guess".equals(auth.getCredentials())));
+    }
+
+    @Test
+    void verifiesAgainAfterUserCredentialsChanged() {
+        provider.authenticate(login(PASSWORD));
+
+        provider.onUserCredentialsChanged(new UserCredentialsChangedEvent(USERNAME));
+        provider.authenticate(login(PASSWORD));
+
+        verify(delegate, times(2)).authenticate(argThat(auth -> PASSWORD.equals(auth.getCredentials())));
+    }
+
+    private static Authentication login(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, password);
+    }
+}
@@ -0,0 +1,64 @@
+package org.springframework.samples.petclinic.security;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"petclinic.security.enable=true", "petclinic.security.mode=token"})
+@AutoConfigureMockMvc
+class TokenAuthenticationTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    private String issueToken(String username, String password) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"%s\", \"password\": \"%s\"}".formatted(username, password)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.expiresAt").exists())
+            .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.token");
+    }
+
+    @Test
+    void issuedTokenAuthenticatesWithoutSession() throws Exception {
+        String token = issueToken("admin", "admin");
+
+        mockMvc.perform(get("/api/vets").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Set-Cookie"));
+    }
+
+    @Test
+    void wrongPasswordIsNotIssuedAToken() throws Exception {
+        mockMvc.perform(post("/api/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"admin\", \"password\": \"nimda\"}"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void requestsWithoutValidTokenAreRejected() throws Exception {
+        String token = issueToken("admin", "admin");
+
+        mockMvc.perform(get("/api/vets"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/vets").header(HttpHeaders.AUTHORIZATION, "Bearer " + token + "x"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/vets").with(httpBasic("admin", "admin")))
+            .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,50 @@
+package org.springframework.samples.petclinic.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.samples.petclinic.repository.OwnerRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CallMonitoringAspectTest {
+
+    private static final String FIND_BY_ID = "OwnerRepository.findById(int)";
+
+    @Autowired
+    CallMonitoringAspect callMonitor;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void springDataRepositoryCallsAreRecordedPerMethod() {
+        ownerRepository.findById(1);
+        callMonitor.reset();
+        double countedBefore = callCount();
+
+        ownerRepository.findById(1);
+        ownerRepository.findById(2);
+
+        assertThat(callMonitor.getMethodLatencies()).anyMatch(line -> line.startsWith(FIND_BY_ID + " count=2 "));
+        assertThat(callMonitor.getLatencyNanos(FIND_BY_ID, 0.99)).isPositive();
+        assertThat(callCount()).isEqualTo(countedBefore + 2);
+        assertThat(meterRegistry.get(CallMonitoringAspect.METER_NAME + ".latency")
+            .tags("method", FIND_BY_ID, "quantile", "0.99").gauge().value()).isPositive();
+
+        callMonitor.reset();
+
+        assertThat(callMonitor.getMethodLatencies()).anyMatch(line -> line.startsWith(FIND_BY_ID + " count=0 "));
+        // counters only ever grow, whatever JMX resets
+        assertThat(callCount()).isEqualTo(countedBefore + 2);
+    }
+
+    private double callCount() {
+        return meterRegistry.get(CallMonitoringAspect.METER_NAME).tag("method", FIND_BY_ID).functionCounter().count();
+    }
+}
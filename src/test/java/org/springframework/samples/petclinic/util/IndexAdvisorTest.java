@@ -0,0 +1,38 @@
+package org.springframework.samples.petclinic.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.util.IndexAdvisor.IndexAdvice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class IndexAdvisorTest {
+
+    @Autowired
+    IndexAdvisor indexAdvisor;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everyRepositoryQueryHasASupportingIndex() {
+        assertThat(indexAdvisor.advise()).isEmpty();
+    }
+
+    @Test
+    void reportsJpqlAndDerivedQueriesWhoseIndexIsMissing() {
+        jdbcTemplate.execute("DROP INDEX idx_types_name");
+        jdbcTemplate.execute("DROP INDEX idx_specialties_name");
+        try {
+            assertThat(indexAdvisor.advise()).contains(
+                new IndexAdvice("PetRepository", "findPetTypes", "types", "name"),
+                new IndexAdvice("SpecialtyRepository", "findSpecialtiesByNameIn", "specialties", "name"));
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_types_name ON types(name)");
+            jdbcTemplate.execute("CREATE INDEX idx_specialties_name ON specialties(name)");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.springframework.samples.petclinic.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValueContiguously() {
+        for (int index = 1; index < 600; index++) {
+            assertThat(LatencyHistogram.lowestEquivalentValue(index))
+                .isEqualTo(LatencyHistogram.highestEquivalentValue(index - 1) + 1);
+            assertThat(LatencyHistogram.bucketIndex(LatencyHistogram.lowestEquivalentValue(index))).isEqualTo(index);
+        }
+        assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.bucketIndex(1L << 50));
+    }
+
+    @Test
+    void percentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMaxNanos()).isEqualTo(1_000_000);
+        assertThat((double) histogram.getValueAtQuantile(0.5)).isCloseTo(500_000, within(500_000 * 0.07));
+        assertThat((double) histogram.getValueAtQuantile(0.99)).isCloseTo(990_000, within(990_000 * 0.07));
+        assertThat(histogram.getValueAtQuantile(0.999)).isLessThanOrEqualTo(1_000_000);
+        assertThat(new LatencyHistogram().getValueAtQuantile(0.99)).isZero();
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(histogram.getCount()).isEqualTo(80_000);
+        assertThat(histogram.getMaxNanos()).isEqualTo(9_999);
+    }
+}